@@ -22,7 +22,7 @@ public class Application {
                 System.out.println("\nExiting application...");
                 break;
             }
-            else if (choice > 16) {
+            else if (choice > 19) {
                 System.out.println("\nInvalid choice. Please select a valid option.");
                 continue;
             }
@@ -190,6 +190,42 @@ public class Application {
                         else
                             System.out.println("The automaton is NOT composite. The automaton is PRIME.");
                         break;
+                    case 17:
+                        if(!automaton.isDeterministic()) {
+                            printWrongAutomatonTypeMsg("deterministic");
+                            break;
+                        }
+                        if(!dfa.isPermutation())
+                            printWrongAutomatonTypeMsg("permutation");
+                        else if(dfa.isCompositeBlocks())
+                            System.out.println("The automaton is composite.");
+                        else
+                            System.out.println("The automaton is NOT composite. The automaton is PRIME.");
+                        break;
+                    case 18:
+                        if(!automaton.isDeterministic()) {
+                            printWrongAutomatonTypeMsg("deterministic");
+                            break;
+                        }
+                        if(!dfa.isCommutative())
+                            printWrongAutomatonTypeMsg("commutative");
+                        else if(dfa.isCompositeCommutativeBFS())
+                            System.out.println("The automaton is composite.");
+                        else
+                            System.out.println("The automaton is NOT composite. The automaton is PRIME.");
+                        break;
+                    case 19:
+                        if(!automaton.isDeterministic()) {
+                            printWrongAutomatonTypeMsg("deterministic");
+                            break;
+                        }
+                        if(!dfa.isCommutative())
+                            printWrongAutomatonTypeMsg("commutative");
+                        else if(dfa.isCompositeCommutativeGroup())
+                            System.out.println("The automaton is composite.");
+                        else
+                            System.out.println("The automaton is NOT composite. The automaton is PRIME.");
+                        break;
                 }
             }
             else{
@@ -222,6 +258,11 @@ public class Application {
         System.out.println("15 - Is the DFA composite? - Algorithm for permutation commutative DFAs " +
                 "with saved word");
         System.out.println("16 - Is the DFA composite? - Algorithm for permutation commutative DFAs with big alphabet");
+        System.out.println("17 - Is the DFA composite? - Algorithm using block systems for permutation DFAs");
+        System.out.println("18 - Is the DFA composite? - Algorithm for permutation commutative DFAs " +
+                "using breadth-first search");
+        System.out.println("19 - Is the DFA composite? - Algorithm for permutation commutative DFAs " +
+                "using the invariant factors of the transition group");
         System.out.println("100 - Exit application");
         System.out.print("Enter your choice: ");
     }
@@ -50,15 +50,25 @@ public class Automaton {
         for (String state : states) {
             System.out.print(state + "\t");
             for (String symbol : alpha) {
-                Map<String, String> transitionKey = new HashMap<>();
-                transitionKey.put(state, symbol);
-                Set<String> nextState = transitionFunction.get(transitionKey);
+                Set<String> nextState = step(state, symbol);
                 System.out.print("\t" + (nextState != null ? nextState : "-"));
             }
             System.out.println();
         }
     }
 
+    /**
+     * Returns the set of states reached from the given state by reading the given symbol.
+     * The lookup probes the transition function with a reusable key, so it does not allocate a transition key.
+     *
+     * @param state the source state
+     * @param symbol the symbol to read, the empty string for epsilon transitions
+     * @return the target states, or null if no transition is defined
+     */
+    public Set<String> step(String state, String symbol) {
+        return TransitionLookup.step(transitionFunction, state, symbol);
+    }
+
     /**
      * Checks if the automaton is deterministic. A deterministic automaton must not have any epsilon transitions
      * and each state must have at most one transition for each symbol in the alphabet.
@@ -67,12 +77,12 @@ public class Automaton {
      */
     public boolean isDeterministic() {
         for (String state : states) {
-            Set<String> epsilonTransition = transitionFunction.get(Map.of(state, ""));
+            Set<String> epsilonTransition = step(state, "");
             if (epsilonTransition != null) {
                 return false;
             }
             for (String symbol : alphabet) {
-                Set<String> nextStates = transitionFunction.get(Map.of(state, symbol));
+                Set<String> nextStates = step(state, symbol);
                 if (nextStates != null && nextStates.size() > 1) {
                     return false;
                 }
@@ -96,8 +106,9 @@ public class Automaton {
 
             for (String state : this.states) {
                 for (String symbol : this.alphabet) {
-                    if(transitionFunction.get(Map.of(state, symbol)) != null){
-                        String nextState = transitionFunction.get(Map.of(state, symbol)).iterator().next();
+                    Set<String> nextStates = step(state, symbol);
+                    if(nextStates != null){
+                        String nextState = nextStates.iterator().next();
                         dfaTransitionFunction.put(Map.of(state, symbol), nextState);
                     }
                 }
@@ -116,128 +127,30 @@ public class Automaton {
      * @return the epsilon closure of the given states
      */
     public Set<String> closureEpsilon(Set<String> s) {
-        Set<String> oldS = new HashSet<>(s);
-        for (String state : oldS) {
-            Map<String, String> key = Map.of(state, "");
-            Set<String> transitions = transitionFunction.get(key);
+        Deque<String> stack = new ArrayDeque<>(s);
+        while (!stack.isEmpty()) {
+            Set<String> transitions = step(stack.pop(), "");
             if (transitions != null) {
-                s.addAll(transitions);
+                for (String state : transitions) {
+                    if (s.add(state)) {
+                        stack.push(state);
+                    }
+                }
             }
         }
-        if (s.equals(oldS)) {
-            return s;
-        } else {
-            return closureEpsilon(s);
-        }
+        return s;
     }
 
     /**
      * Converts the NFA into a DFA by removing epsilon transitions and ensuring each state has at most one transition
-     * for every symbol in the alphabet.
+     * for every symbol in the alphabet. The states of the DFA are the reachable sets of states of the NFA named by
+     * their sorted, comma-separated state names, see {@link SubsetConstruction}.
      *
      * @return the corresponding DFA
      */
     public DFA convertToDeterministic() {
-        Map<Map<String, String>, String> dfaTransitions = new HashMap<>();
-        Set<String> q0Closure = closureEpsilon(new HashSet<>(Collections.singleton(initialState)));
-        List<Set<String>> qDone = new ArrayList<>();
-        List<Set<String>> qList = new ArrayList<>();
-        qList.add(q0Closure);
-
-        while (!qList.isEmpty()) {
-            Set<String> state = qList.get(0);
-            qDone.add(state);
-            qList.remove(0);
-            alphabet.remove("");
-
-            for (String symbol : alphabet) {
-                List<String> transitions = new ArrayList<>();
-
-                for (String i : state) {
-                    Map<String, String> key = Map.of(i, symbol);
-                    Set<String> transition = transitionFunction.get(key);
-                    if (transition != null) {
-                        transitions.addAll(transition);
-                    }
-                }
-
-                if (!transitions.isEmpty()) {
-                    Set<String> newState = new HashSet<>(closureEpsilon(new HashSet<>(transitions)));
-                    dfaTransitions.put(
-                            Map.of(sortedStateString(state), symbol),
-                            sortedStateString(newState)
-                    );
-
-                    if (!qDone.contains(newState) && !qList.contains(newState)) {
-                        qList.add(newState);
-                    }
-                }
-            }
-        }
-
-        // Determine accepting states
-        Set<String> acceptingStates = new HashSet<>();
-        for (Map.Entry<Map<String, String>, String> entry : dfaTransitions.entrySet()) {
-            String state = entry.getKey().keySet().iterator().next();
-            Set<String> qStateSet = evalState(state);
-            for (String qState : qStateSet) {
-                if (this.acceptStates.contains(qState)) {
-                    acceptingStates.add(state);
-                    break;
-                }
-            }
-        }
-
-        for (Map.Entry<Map<String, String>, String> entry : dfaTransitions.entrySet()) {
-            String nextState = entry.getValue();
-            Set<String> qStateSet = evalState(nextState);
-            for (String qState : qStateSet) {
-                if (this.acceptStates.contains(qState)) {
-                    acceptingStates.add(nextState);
-                    break;
-                }
-            }
-        }
-
-        // Update of states
-        Set<String> allStates = new HashSet<>();
-        for (Map.Entry<Map<String, String>, String> entry : dfaTransitions.entrySet()) {
-            allStates.add(entry.getKey().keySet().iterator().next());
-            allStates.add(entry.getValue());
-        }
-
-        if(this.alphabet.isEmpty()){
-            allStates.add(sortedStateString(q0Closure));
-            for(String state : this.acceptStates){
-                if(q0Closure.contains(state)){
-                    acceptingStates.add(sortedStateString(q0Closure));
-                    break;
-                }
-            }
-        }
-        return new DFA(allStates, alphabet, sortedStateString(q0Closure), acceptingStates, dfaTransitions);
-    }
-
-    /**
-     * Sorts a set of state names and returns them as a comma-separated string.
-     *
-     * @param stateSet the set of states to sort
-     * @return a sorted comma-separated string of state names
-     */
-    private String sortedStateString(Set<String> stateSet) {
-        List<String> sortedState = new ArrayList<>(stateSet);
-        sortedState.sort(Comparator.naturalOrder());
-        return String.join(",", sortedState);
-    }
-
-    /**
-     * Evaluates a state string by splitting it into individual state names.
-     *
-     * @param stateString the comma-separated state string
-     * @return the set of individual states
-     */
-    private Set<String> evalState(String stateString) {
-        return new HashSet<>(Arrays.asList(stateString.split(",")));
+        alphabet.remove("");
+        return SubsetConstruction.determinize(this).toDFA();
     }
 
     /**
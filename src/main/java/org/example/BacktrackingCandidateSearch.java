@@ -0,0 +1,169 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+/**
+ * Backtracking search for the candidate DFAs of a fixed size whose language contains the language of a DFA.
+ * A candidate is built one transition at a time while the product of the DFA and the candidate is explored
+ * breadth-first, and a transition of the candidate is chosen only when a reachable pair needs it. New states
+ * are numbered in the order of their discovery, so every initially-connected candidate is built exactly once.
+ * <p>
+ * The accepting states of a candidate are not enumerated: a candidate state paired with an accepting state
+ * of the DFA is forced to be accepting, and all other states are rejecting. This is the smallest language
+ * containing the language of the DFA for the given transitions, so every other accepting mask only gives
+ * a larger language and cannot change the roof. A partial candidate is pruned as soon as all of its states
+ * are forced to be accepting, since all its completions then accept every word.
+ * Missing transitions of the DFA lead to a virtual dead state, which keeps the candidates complete.
+ */
+final class BacktrackingCandidateSearch {
+    private final CompactDFA dfa;
+    private final String[] symbols;
+    private final int symbolCount;
+    private final int deadState;
+    private final int stateCount;
+    private final String[] stateNames;
+    private final Predicate<CompactDFA> consumer;
+
+    private final int[] table;
+    private int count;
+    private final BitSet visited;
+    private final int[] pairStates;
+    private final int[] pairCandidates;
+    private int tail;
+    private final boolean[] forced;
+    private final int[] forcedTrail;
+    private int forcedCount;
+
+    private BacktrackingCandidateSearch(CompactDFA dfa, int stateCount, Predicate<CompactDFA> consumer) {
+        this.dfa = dfa;
+        this.symbolCount = dfa.getSymbolCount();
+        this.symbols = new String[symbolCount];
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            symbols[symbol] = dfa.getSymbol(symbol);
+        }
+        this.deadState = dfa.getStateCount();
+        this.stateCount = stateCount;
+        this.stateNames = new String[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            stateNames[i] = "q" + i;
+        }
+        this.consumer = consumer;
+
+        int pairCount = (deadState + 1) * stateCount;
+        this.table = new int[stateCount * symbolCount];
+        Arrays.fill(table, CompactDFA.NO_STATE);
+        this.visited = new BitSet(pairCount);
+        this.pairStates = new int[pairCount];
+        this.pairCandidates = new int[pairCount];
+        this.forced = new boolean[stateCount];
+        this.forcedTrail = new int[stateCount];
+    }
+
+    /**
+     * Searches the candidates with exactly the given number of states and passes each of them, with its
+     * forced accepting states, to the consumer until the consumer asks to stop.
+     *
+     * @param dfa The compact DFA whose language the candidates have to accept.
+     * @param stateCount The number of states of the candidates.
+     * @param consumer The callback receiving the candidates, returning true to stop the search.
+     * @return true if the consumer stopped the search, false otherwise.
+     */
+    static boolean search(CompactDFA dfa, int stateCount, Predicate<CompactDFA> consumer) {
+        if (stateCount <= 0) {
+            return false;
+        }
+        BacktrackingCandidateSearch search = new BacktrackingCandidateSearch(dfa, stateCount, consumer);
+        int initial = dfa.getInitialState() != CompactDFA.NO_STATE ? dfa.getInitialState() : search.deadState;
+        search.count = 1;
+        search.visit(initial, 0);
+        return search.explore(0);
+    }
+
+    /**
+     * Continues the exploration of the product from the given position and undoes all changes it made.
+     * Positions number the pairs of the product together with a symbol, {@code pair * |alphabet| + symbol}.
+     *
+     * @param position The first position to process.
+     * @return true if the consumer stopped the search, false otherwise.
+     */
+    private boolean explore(int position) {
+        int savedTail = tail;
+        int savedForced = forcedCount;
+        boolean stop = exploreFrom(position);
+        while (tail > savedTail) {
+            tail--;
+            visited.clear(pairStates[tail] * stateCount + pairCandidates[tail]);
+        }
+        while (forcedCount > savedForced) {
+            forced[forcedTrail[--forcedCount]] = false;
+        }
+        return stop;
+    }
+
+    private boolean exploreFrom(int position) {
+        while (position < tail * symbolCount) {
+            int pair = position / symbolCount;
+            int symbol = position % symbolCount;
+            int candidateState = pairCandidates[pair];
+            int transition = candidateState * symbolCount + symbol;
+
+            if (table[transition] == CompactDFA.NO_STATE) {
+                // Branch on the target: one of the known states or the next new one
+                int limit = Math.min(count + 1, stateCount);
+                for (int target = 0; target < limit; target++) {
+                    boolean newState = target == count;
+                    table[transition] = target;
+                    if (newState) {
+                        count++;
+                    }
+                    boolean stop = explore(position);
+                    if (newState) {
+                        count--;
+                    }
+                    table[transition] = CompactDFA.NO_STATE;
+                    if (stop) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            int state = pairStates[pair];
+            int nextState = state != deadState ? dfa.step(state, symbol) : CompactDFA.NO_STATE;
+            visit(nextState != CompactDFA.NO_STATE ? nextState : deadState, table[transition]);
+            if (forcedCount == stateCount) {
+                return false;
+            }
+            position++;
+        }
+
+        if (count < stateCount) {
+            return false;
+        }
+        return consumer.test(new CompactDFA(stateNames, symbols, 0, forced.clone(), table.clone()));
+    }
+
+    /**
+     * Adds a pair of states to the product unless it was already reached, forcing the candidate state
+     * to be accepting if the state of the DFA is accepting.
+     *
+     * @param state The state of the DFA or the virtual dead state.
+     * @param candidateState The state of the candidate.
+     */
+    private void visit(int state, int candidateState) {
+        int bit = state * stateCount + candidateState;
+        if (visited.get(bit)) {
+            return;
+        }
+        visited.set(bit);
+        pairStates[tail] = state;
+        pairCandidates[tail] = candidateState;
+        tail++;
+        if (state != deadState && dfa.isAccepting(state) && !forced[candidateState]) {
+            forced[candidateState] = true;
+            forcedTrail[forcedCount++] = candidateState;
+        }
+    }
+}
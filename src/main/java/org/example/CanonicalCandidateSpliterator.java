@@ -0,0 +1,232 @@
+package org.example;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy enumeration of the initially-connected complete DFAs with a fixed number of states and a non-empty
+ * set of accepting states, one per isomorphism class. Following Almeida, Moreira and Reis, a DFA is
+ * represented by its flat transition table with states numbered in the order of a breadth-first search
+ * from the initial state q0 that visits the symbols in order. A table is canonical if
+ * <ul>
+ *     <li>every state first occurs after all smaller states (except q0, which is not required to occur) and</li>
+ *     <li>state j first occurs among the transitions of the states q0 to q(j-1).</li>
+ * </ul>
+ * Every initially-connected DFA has exactly one canonical table, so isomorphic copies and DFAs with
+ * unreachable states are never produced. Canonical tables are produced in lexicographic order and every
+ * table is combined with all non-empty accepting masks before moving to the next one.
+ * <p>
+ * A spliterator enumerates the canonical tables starting with a fixed prefix whose next position takes values
+ * from a range. Splitting divides the range, or extends the prefix when the range has a single value, so that
+ * disjoint parts of the enumeration can run in parallel streams.
+ */
+public final class CanonicalCandidateSpliterator implements Spliterator<CompactDFA> {
+    /**
+     * The number of positions of the table that are never fixed by splitting, so that parts do not get too small.
+     */
+    private static final int UNSPLIT_POSITIONS = 2;
+
+    private final String[] stateNames;
+    private final String[] symbols;
+    private final int[] table;
+    /**
+     * The largest state occurring in the table before the given position, the state q0 counts as occurring.
+     */
+    private final int[] maxBefore;
+    /**
+     * The number of leading positions of the table that stay fixed in this spliterator.
+     */
+    private int fixed;
+    /**
+     * The largest value of the first position that is not fixed.
+     */
+    private int upper;
+    private int acceptMask;
+    private boolean started;
+    private boolean finished;
+
+    private CanonicalCandidateSpliterator(String[] stateNames, String[] symbols) {
+        this.stateNames = stateNames;
+        this.symbols = symbols;
+        this.table = new int[stateNames.length * symbols.length];
+        this.maxBefore = new int[table.length + 1];
+        this.acceptMask = 1;
+        this.finished = stateNames.length == 0 || (stateNames.length > 1 && symbols.length == 0);
+        if (!finished) {
+            complete(0);
+            upper = limit(0);
+        }
+    }
+
+    private CanonicalCandidateSpliterator(CanonicalCandidateSpliterator other, int upper) {
+        this.stateNames = other.stateNames;
+        this.symbols = other.symbols;
+        this.table = other.table.clone();
+        this.maxBefore = other.maxBefore.clone();
+        this.fixed = other.fixed;
+        this.upper = upper;
+        this.acceptMask = 1;
+    }
+
+    /**
+     * Creates a spliterator over the canonical initially-connected DFAs with the given number of states
+     * over the alphabet of the given compact DFA. The candidates share the interning of the symbols with the DFA.
+     *
+     * @param dfa        The DFA whose alphabet is used.
+     * @param stateCount The number of states of the candidates.
+     * @return The spliterator over all canonical candidates.
+     * @throws IllegalArgumentException if the accepting masks of the candidates do not fit into an int.
+     */
+    public static CanonicalCandidateSpliterator of(CompactDFA dfa, int stateCount) {
+        if (stateCount >= Integer.SIZE - 1) {
+            throw new IllegalArgumentException("Too many states for enumerating accepting masks: " + stateCount);
+        }
+        String[] symbols = new String[dfa.getSymbolCount()];
+        for (int symbol = 0; symbol < symbols.length; symbol++) {
+            symbols[symbol] = dfa.getSymbol(symbol);
+        }
+        String[] stateNames = new String[Math.max(stateCount, 0)];
+        for (int i = 0; i < stateNames.length; i++) {
+            stateNames[i] = "q" + i;
+        }
+        return new CanonicalCandidateSpliterator(stateNames, symbols);
+    }
+
+    /**
+     * Streams the canonical initially-connected DFAs with the given number of states over the alphabet
+     * of the given compact DFA.
+     *
+     * @param dfa        The DFA whose alphabet is used.
+     * @param stateCount The number of states of the candidates.
+     * @return The sequential stream of all canonical candidates.
+     */
+    public static Stream<CompactDFA> stream(CompactDFA dfa, int stateCount) {
+        return stream(dfa, stateCount, false);
+    }
+
+    /**
+     * Streams the canonical initially-connected DFAs with the given number of states over the alphabet
+     * of the given compact DFA.
+     *
+     * @param dfa        The DFA whose alphabet is used.
+     * @param stateCount The number of states of the candidates.
+     * @param parallel   Whether the returned stream is parallel.
+     * @return The stream of all canonical candidates.
+     */
+    public static Stream<CompactDFA> stream(CompactDFA dfa, int stateCount, boolean parallel) {
+        return StreamSupport.stream(of(dfa, stateCount), parallel);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super CompactDFA> action) {
+        if (finished) {
+            return false;
+        }
+        started = true;
+        action.accept(current());
+        advance();
+        return true;
+    }
+
+    @Override
+    public Spliterator<CompactDFA> trySplit() {
+        if (started || finished) {
+            return null;
+        }
+        int lastSplitPosition = table.length - UNSPLIT_POSITIONS;
+        while (fixed < lastSplitPosition && table[fixed] == upper) {
+            fixed++;
+            upper = limit(fixed);
+        }
+        if (fixed >= lastSplitPosition || table[fixed] == upper) {
+            return null;
+        }
+
+        int middle = (table[fixed] + upper) >>> 1;
+        CanonicalCandidateSpliterator prefix = new CanonicalCandidateSpliterator(this, middle);
+        table[fixed] = middle + 1;
+        maxBefore[fixed + 1] = Math.max(maxBefore[fixed], table[fixed]);
+        complete(fixed + 1);
+        return prefix;
+    }
+
+    /**
+     * Estimates the number of candidates as the number of accepting masks times the number of values
+     * of the positions that are not fixed, capped at {@link Long#MAX_VALUE}.
+     *
+     * @return The estimated number of remaining candidates.
+     */
+    @Override
+    public long estimateSize() {
+        if (finished) {
+            return 0;
+        }
+        long estimate = (1L << stateNames.length) - 1;
+        for (int position = fixed; position < table.length && estimate < Long.MAX_VALUE / stateNames.length; position++) {
+            estimate *= stateNames.length;
+        }
+        return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+    }
+
+    /**
+     * Moves to the next accepting mask, or to the next canonical table with the first mask
+     * once all masks of the current table were produced.
+     */
+    private void advance() {
+        if (++acceptMask < (1 << stateNames.length)) {
+            return;
+        }
+        acceptMask = 1;
+        for (int position = table.length - 1; position >= fixed; position--) {
+            if (table[position] < (position == fixed ? upper : limit(position))) {
+                table[position]++;
+                maxBefore[position + 1] = Math.max(maxBefore[position], table[position]);
+                complete(position + 1);
+                return;
+            }
+        }
+        finished = true;
+    }
+
+    /**
+     * Returns the largest value a canonical table may have at the given position, given the values before it.
+     *
+     * @param position The position in the table.
+     * @return The largest state that may occur at the position.
+     */
+    private int limit(int position) {
+        return Math.min(maxBefore[position] + 1, stateNames.length - 1);
+    }
+
+    /**
+     * Fills the table from the given position with the lexicographically smallest canonical suffix.
+     * The suffix consists of zeros, except that a state that was not found yet is placed on the last
+     * transition where it may first occur.
+     *
+     * @param from The first position to fill.
+     */
+    private void complete(int from) {
+        int symbolCount = symbols.length;
+        for (int position = from; position < table.length; position++) {
+            int requiredState = (position + 1) / symbolCount;
+            boolean lastChance = (position + 1) % symbolCount == 0 && requiredState < stateNames.length;
+            table[position] = lastChance && maxBefore[position] < requiredState ? requiredState : 0;
+            maxBefore[position + 1] = Math.max(maxBefore[position], table[position]);
+        }
+    }
+
+    private CompactDFA current() {
+        boolean[] accepting = new boolean[stateNames.length];
+        for (int state = 0; state < accepting.length; state++) {
+            accepting[state] = (acceptMask & (1 << state)) != 0;
+        }
+        return new CompactDFA(stateNames, symbols, 0, accepting, table.clone());
+    }
+}
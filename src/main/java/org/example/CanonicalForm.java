@@ -0,0 +1,225 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Canonical form of the language of a DFA: its trim minimal DFA with the states renumbered in the order of a
+ * breadth-first search from the initial state that visits the symbols in order, encoded into an int array.
+ * The trim DFA keeps only the states from which an accepting state is reachable, so a missing transition and a
+ * transition into a rejecting sink are encoded alike, whether the DFA is complete or partial. Two DFAs over the
+ * same alphabet have equal canonical forms exactly when they accept the same language, regardless of the names
+ * of their states.
+ * <p>
+ * The code consists of the number of states, the number of symbols, the accepting flag (0 or 1) of every state
+ * and the flat transition table, with missing transitions stored as {@link CompactDFA#NO_STATE}. A 64-bit
+ * fingerprint of the code is computed once, so forms are hashed and mostly compared in constant time.
+ */
+public final class CanonicalForm {
+    private static final int HEADER = 2;
+
+    private final String[] symbols;
+    private final int[] code;
+    private final long fingerprint;
+
+    private CanonicalForm(String[] symbols, int[] code) {
+        this.symbols = symbols;
+        this.code = code;
+        this.fingerprint = fingerprint(code);
+    }
+
+    /**
+     * Computes the canonical form of the language of the given DFA.
+     *
+     * @param dfa The compact DFA.
+     * @return The canonical form of the minimal DFA of the language.
+     */
+    public static CanonicalForm of(CompactDFA dfa) {
+        return ofMinimal(dfa.minimize());
+    }
+
+    /**
+     * Computes the canonical form of a DFA that is already minimal, without minimizing it again.
+     * Only the states reachable from the initial state and reaching an accepting state are encoded.
+     *
+     * @param minimal The minimal compact DFA.
+     * @return The canonical form of the DFA.
+     */
+    public static CanonicalForm ofMinimal(CompactDFA minimal) {
+        int symbolCount = minimal.getSymbolCount();
+        String[] symbols = new String[symbolCount];
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            symbols[symbol] = minimal.getSymbol(symbol);
+        }
+        boolean[] live = liveStates(minimal);
+        if (minimal.getInitialState() == CompactDFA.NO_STATE || !live[minimal.getInitialState()]) {
+            return new CanonicalForm(symbols, new int[]{0, symbolCount});
+        }
+
+        int[] number = new int[minimal.getStateCount()];
+        Arrays.fill(number, CompactDFA.NO_STATE);
+        int[] order = new int[minimal.getStateCount()];
+        number[minimal.getInitialState()] = 0;
+        order[0] = minimal.getInitialState();
+        int count = 1;
+        for (int head = 0; head < count; head++) {
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int nextState = minimal.step(order[head], symbol);
+                if (nextState != CompactDFA.NO_STATE && live[nextState] && number[nextState] == CompactDFA.NO_STATE) {
+                    number[nextState] = count;
+                    order[count++] = nextState;
+                }
+            }
+        }
+
+        int[] code = new int[HEADER + count + count * symbolCount];
+        code[0] = count;
+        code[1] = symbolCount;
+        for (int i = 0; i < count; i++) {
+            code[HEADER + i] = minimal.isAccepting(order[i]) ? 1 : 0;
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int nextState = minimal.step(order[i], symbol);
+                code[HEADER + count + i * symbolCount + symbol] = nextState != CompactDFA.NO_STATE && live[nextState]
+                        ? number[nextState] : CompactDFA.NO_STATE;
+            }
+        }
+        return new CanonicalForm(symbols, code);
+    }
+
+    /**
+     * Finds the states from which an accepting state is reachable by a breadth-first search over the reversed
+     * transitions.
+     *
+     * @param dfa The compact DFA.
+     * @return The flag of every state, true if the state reaches an accepting state.
+     */
+    private static boolean[] liveStates(CompactDFA dfa) {
+        int stateCount = dfa.getStateCount();
+        int symbolCount = dfa.getSymbolCount();
+        int[] inverseStart = new int[stateCount + 1];
+        for (int state = 0; state < stateCount; state++) {
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int nextState = dfa.step(state, symbol);
+                if (nextState != CompactDFA.NO_STATE) {
+                    inverseStart[nextState + 1]++;
+                }
+            }
+        }
+        for (int state = 0; state < stateCount; state++) {
+            inverseStart[state + 1] += inverseStart[state];
+        }
+        int[] sources = new int[inverseStart[stateCount]];
+        int[] fill = Arrays.copyOf(inverseStart, stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int nextState = dfa.step(state, symbol);
+                if (nextState != CompactDFA.NO_STATE) {
+                    sources[fill[nextState]++] = state;
+                }
+            }
+        }
+
+        boolean[] live = new boolean[stateCount];
+        int[] queue = new int[stateCount];
+        int tail = 0;
+        for (int state = 0; state < stateCount; state++) {
+            if (dfa.isAccepting(state)) {
+                live[state] = true;
+                queue[tail++] = state;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            for (int i = inverseStart[queue[head]]; i < inverseStart[queue[head] + 1]; i++) {
+                if (!live[sources[i]]) {
+                    live[sources[i]] = true;
+                    queue[tail++] = sources[i];
+                }
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Returns the 64-bit fingerprint of the form. Equal forms have equal fingerprints.
+     *
+     * @return The fingerprint.
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the number of states of the trim minimal DFA.
+     *
+     * @return The number of states, 0 if the language is empty.
+     */
+    public int getStateCount() {
+        return code[0];
+    }
+
+    /**
+     * Returns a copy of the int encoding of the form.
+     *
+     * @return The code of the form.
+     */
+    public int[] toArray() {
+        return code.clone();
+    }
+
+    /**
+     * Builds the trim minimal DFA of the form with the states q0, q1, ... numbered breadth-first, q0 being
+     * initial. Missing transitions reject. The DFA of the empty language is a single rejecting state.
+     *
+     * @return The compact minimal DFA.
+     */
+    public CompactDFA toCompactDFA() {
+        int count = code[0];
+        if (count == 0) {
+            return new CompactDFA(new String[]{"q0"}, symbols, 0, new boolean[1], new int[symbols.length]);
+        }
+        String[] stateNames = new String[count];
+        boolean[] accepting = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            stateNames[i] = "q" + i;
+            accepting[i] = code[HEADER + i] == 1;
+        }
+        int[] table = Arrays.copyOfRange(code, HEADER + count, code.length);
+        return new CompactDFA(stateNames, symbols, 0, accepting, table);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CanonicalForm)) {
+            return false;
+        }
+        CanonicalForm other = (CanonicalForm) o;
+        return fingerprint == other.fingerprint && Arrays.equals(code, other.code) && Arrays.equals(symbols, other.symbols);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fingerprint);
+    }
+
+    /**
+     * Hashes the code with a multiplicative mix of every value and the final mix of MurmurHash3.
+     *
+     * @param code The code of a form.
+     * @return The 64-bit fingerprint.
+     */
+    private static long fingerprint(int[] code) {
+        long hash = 0xcbf29ce484222325L;
+        for (int value : code) {
+            hash = (hash ^ (value & 0xffffffffL)) * 0x100000001b3L;
+            hash = Long.rotateLeft(hash, 29);
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,1037 @@
+package org.example;
+
+import java.util.*;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Compact, int-indexed representation of a deterministic finite automaton.
+ * States and symbols are interned to consecutive integers in the natural order of their names and
+ * the transition function is stored in a flat table indexed by {@code state * |alphabet| + symbol}.
+ * Missing transitions are stored as {@link #NO_STATE}. State names are kept only to convert the
+ * automaton back to a {@link DFA}.
+ */
+public final class CompactDFA {
+    public static final int NO_STATE = -1;
+
+    private final String[] stateNames;
+    private final String[] symbols;
+    private final int initialState;
+    private final boolean[] accepting;
+    private final int[] table;
+    // Built on the first lookup by name, most instances are candidates that are never looked up
+    private volatile Map<String, Integer> stateIndex;
+
+    /**
+     * Creates a compact DFA from already interned components.
+     *
+     * @param stateNames   The names of the states, indexed by state number.
+     * @param symbols      The symbols of the alphabet, indexed by symbol number.
+     * @param initialState The number of the initial state or {@link #NO_STATE}.
+     * @param accepting    The accepting flag of every state.
+     * @param table        The flat transition table of size {@code |states| * |alphabet|}.
+     */
+    CompactDFA(String[] stateNames, String[] symbols, int initialState, boolean[] accepting, int[] table) {
+        this.stateNames = stateNames;
+        this.symbols = symbols;
+        this.initialState = initialState;
+        this.accepting = accepting;
+        this.table = table;
+    }
+
+    /**
+     * Interns the states and symbols of the given DFA and builds its transition table.
+     * States referenced only by the transition function, the initial state or the accepting states
+     * are interned as well, so the conversion never loses a transition.
+     *
+     * @param dfa The DFA to convert.
+     * @return The compact representation of the DFA.
+     */
+    public static CompactDFA of(DFA dfa) {
+        SortedSet<String> names = new TreeSet<>();
+        SortedSet<String> letters = new TreeSet<>();
+        if (dfa.getStates() != null) {
+            names.addAll(dfa.getStates());
+        }
+        if (dfa.getAlphabet() != null) {
+            letters.addAll(dfa.getAlphabet());
+        }
+        if (dfa.getAcceptStates() != null) {
+            names.addAll(dfa.getAcceptStates());
+        }
+        if (dfa.getInitialState() != null) {
+            names.add(dfa.getInitialState());
+        }
+        Map<Map<String, String>, String> transitionFunction =
+                dfa.getTransitionFunction() != null ? dfa.getTransitionFunction() : Map.of();
+        for (Map.Entry<Map<String, String>, String> entry : transitionFunction.entrySet()) {
+            names.add(entry.getKey().keySet().iterator().next());
+            letters.add(entry.getKey().values().iterator().next());
+            names.add(entry.getValue());
+        }
+
+        String[] stateNames = names.toArray(new String[0]);
+        String[] symbols = letters.toArray(new String[0]);
+        Map<String, Integer> stateIndex = new HashMap<>();
+        for (int i = 0; i < stateNames.length; i++) {
+            stateIndex.put(stateNames[i], i);
+        }
+        Map<String, Integer> symbolIndex = new HashMap<>();
+        for (int i = 0; i < symbols.length; i++) {
+            symbolIndex.put(symbols[i], i);
+        }
+
+        int[] table = new int[stateNames.length * symbols.length];
+        Arrays.fill(table, NO_STATE);
+        for (Map.Entry<Map<String, String>, String> entry : transitionFunction.entrySet()) {
+            int from = stateIndex.get(entry.getKey().keySet().iterator().next());
+            int symbol = symbolIndex.get(entry.getKey().values().iterator().next());
+            table[from * symbols.length + symbol] = stateIndex.get(entry.getValue());
+        }
+
+        boolean[] accepting = new boolean[stateNames.length];
+        if (dfa.getAcceptStates() != null) {
+            for (String state : dfa.getAcceptStates()) {
+                accepting[stateIndex.get(state)] = true;
+            }
+        }
+
+        int initialState = dfa.getInitialState() != null ? stateIndex.get(dfa.getInitialState()) : NO_STATE;
+        return new CompactDFA(stateNames, symbols, initialState, accepting, table);
+    }
+
+    /**
+     * Converts the compact DFA back to a DFA with String state names.
+     *
+     * @return A new DFA equivalent to this compact DFA.
+     */
+    public DFA toDFA() {
+        Set<String> states = new HashSet<>(Arrays.asList(stateNames));
+        Set<String> alphabet = new HashSet<>(Arrays.asList(symbols));
+        Set<String> acceptStates = new HashSet<>();
+        Map<Map<String, String>, String> transitionFunction = new HashMap<>();
+
+        for (int state = 0; state < stateNames.length; state++) {
+            if (accepting[state]) {
+                acceptStates.add(stateNames[state]);
+            }
+            for (int symbol = 0; symbol < symbols.length; symbol++) {
+                int nextState = step(state, symbol);
+                if (nextState != NO_STATE) {
+                    transitionFunction.put(Map.of(stateNames[state], symbols[symbol]), stateNames[nextState]);
+                }
+            }
+        }
+
+        String initial = initialState != NO_STATE ? stateNames[initialState] : null;
+        return new DFA(states, alphabet, initial, acceptStates, transitionFunction);
+    }
+
+    public int getStateCount() {
+        return stateNames.length;
+    }
+
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+
+    public int getInitialState() {
+        return initialState;
+    }
+
+    public boolean isAccepting(int state) {
+        return accepting[state];
+    }
+
+    public String getStateName(int state) {
+        return stateNames[state];
+    }
+
+    public String getSymbol(int symbol) {
+        return symbols[symbol];
+    }
+
+    /**
+     * Returns the number of the state with the given name.
+     *
+     * @param name The name of the state.
+     * @return The number of the state or {@link #NO_STATE} if there is no such state.
+     */
+    public int indexOfState(String name) {
+        Map<String, Integer> index = stateIndex;
+        if (index == null) {
+            index = new HashMap<>();
+            for (int i = 0; i < stateNames.length; i++) {
+                index.put(stateNames[i], i);
+            }
+            stateIndex = index;
+        }
+        return index.getOrDefault(name, NO_STATE);
+    }
+
+    /**
+     * Returns the successor of the state on the given symbol.
+     *
+     * @param state  The number of the source state.
+     * @param symbol The number of the symbol.
+     * @return The number of the target state or {@link #NO_STATE} if the transition is not defined.
+     */
+    public int step(int state, int symbol) {
+        return table[state * symbols.length + symbol];
+    }
+
+    /**
+     * Checks whether both compact DFAs are defined over the same alphabet.
+     *
+     * @param other The other compact DFA.
+     * @return true if the symbols of both DFAs are interned identically, false otherwise.
+     */
+    public boolean hasSameAlphabet(CompactDFA other) {
+        return Arrays.equals(symbols, other.symbols);
+    }
+
+//---------------------------------------------Reachability-------------------------------------------------------------
+
+    /**
+     * Computes the states reachable from the initial state using a breadth-first search.
+     *
+     * @return An array where the value at index i is true if state i is reachable.
+     */
+    public boolean[] reachableStates() {
+        boolean[] reachable = new boolean[stateNames.length];
+        if (initialState == NO_STATE) {
+            return reachable;
+        }
+        int[] queue = new int[stateNames.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = initialState;
+        reachable[initialState] = true;
+
+        while (head < tail) {
+            int state = queue[head++];
+            for (int symbol = 0; symbol < symbols.length; symbol++) {
+                int nextState = step(state, symbol);
+                if (nextState != NO_STATE && !reachable[nextState]) {
+                    reachable[nextState] = true;
+                    queue[tail++] = nextState;
+                }
+            }
+        }
+        return reachable;
+    }
+
+//---------------------------------------------Permutation automaton----------------------------------------------------
+
+    /**
+     * Checks whether every symbol induces a permutation of the states, i.e. every state has a transition
+     * on the symbol and no two states share a successor.
+     *
+     * @return true if the DFA is a permutation DFA, false otherwise.
+     */
+    public boolean isPermutation() {
+        boolean[] seen = new boolean[stateNames.length];
+        for (int symbol = 0; symbol < symbols.length; symbol++) {
+            Arrays.fill(seen, false);
+            for (int state = 0; state < stateNames.length; state++) {
+                int nextState = step(state, symbol);
+                if (nextState == NO_STATE || seen[nextState]) {
+                    return false;
+                }
+                seen[nextState] = true;
+            }
+        }
+        return true;
+    }
+
+//--------------------------------------------Commutative automaton-----------------------------------------------------
+
+    /**
+     * The number of checked letter pairs from which the commutativity check runs in parallel over the states.
+     */
+    private static final long PARALLEL_COMMUTATIVITY_THRESHOLD = 1L << 16;
+
+    /**
+     * Searches for a state and a pair of symbols that do not commute, i.e. a state q and symbols a, b with
+     * {@code δ(q, ab) != δ(q, ba)}. Missing transitions lead to a virtual sink state, so a word defined from q
+     * differs from a word undefined from q. All states are checked, including unreachable ones, and the checks
+     * of large automata run in parallel over the states. Since the letters generate all words, the automaton is
+     * commutative if and only if no such triple exists.
+     *
+     * @return The counterexample {state, first symbol, second symbol} with the smallest state number and, for
+     *         that state, the smallest pair of symbols, or null if the automaton is commutative.
+     */
+    public int[] findNonCommutingPair() {
+        long checks = (long) stateNames.length * symbols.length * symbols.length / 2;
+        IntStream states = IntStream.range(0, stateNames.length);
+        if (checks >= PARALLEL_COMMUTATIVITY_THRESHOLD) {
+            states = states.parallel();
+        }
+        OptionalInt state = states.filter(q -> nonCommutingPair(q) != null).findFirst();
+        if (state.isEmpty()) {
+            return null;
+        }
+        int[] pair = nonCommutingPair(state.getAsInt());
+        return new int[]{state.getAsInt(), pair[0], pair[1]};
+    }
+
+    /**
+     * Checks whether the DFA is commutative, see {@link #findNonCommutingPair()}.
+     *
+     * @return true if all pairs of symbols commute in every state, false otherwise.
+     */
+    public boolean isCommutative() {
+        return findNonCommutingPair() == null;
+    }
+
+    /**
+     * Searches for a pair of symbols that does not commute in the given state.
+     *
+     * @param state The number of the state.
+     * @return The smallest pair {first symbol, second symbol} not commuting in the state, or null if there is none.
+     */
+    private int[] nonCommutingPair(int state) {
+        for (int first = 0; first < symbols.length; first++) {
+            int afterFirst = step(state, first);
+            for (int second = first + 1; second < symbols.length; second++) {
+                int afterSecond = step(state, second);
+                int firstSecond = afterFirst != NO_STATE ? step(afterFirst, second) : NO_STATE;
+                int secondFirst = afterSecond != NO_STATE ? step(afterSecond, first) : NO_STATE;
+                if (firstSecond != secondFirst) {
+                    return new int[]{first, second};
+                }
+            }
+        }
+        return null;
+    }
+
+//---------------------------------------------Minimal automaton -------------------------------------------------------
+
+    /**
+     * Partitions the reachable states into classes of indistinguishable states by Moore-style refinement.
+     * The initial partition separates accepting and rejecting states. In every round, states are split
+     * according to their class and the classes of their successors, where a missing transition forms
+     * a class of its own.
+     *
+     * @return The class of every state, or {@link #NO_STATE} for unreachable states.
+     */
+    public int[] partitionStates() {
+        boolean[] reachable = reachableStates();
+        int[] blocks = new int[stateNames.length];
+        int blockCount = 0;
+        boolean hasAccepting = false;
+        boolean hasRejecting = false;
+        for (int state = 0; state < stateNames.length; state++) {
+            if (!reachable[state]) {
+                blocks[state] = NO_STATE;
+            } else {
+                blocks[state] = accepting[state] ? 0 : 1;
+                hasAccepting |= accepting[state];
+                hasRejecting |= !accepting[state];
+            }
+        }
+        blockCount = (hasAccepting ? 1 : 0) + (hasRejecting ? 1 : 0);
+
+        while (true) {
+            Map<Signature, Integer> signatures = new HashMap<>();
+            int[] newBlocks = new int[stateNames.length];
+            for (int state = 0; state < stateNames.length; state++) {
+                if (blocks[state] == NO_STATE) {
+                    newBlocks[state] = NO_STATE;
+                    continue;
+                }
+                int[] signature = new int[symbols.length + 1];
+                signature[0] = blocks[state];
+                for (int symbol = 0; symbol < symbols.length; symbol++) {
+                    int nextState = step(state, symbol);
+                    signature[symbol + 1] = nextState != NO_STATE ? blocks[nextState] : NO_STATE;
+                }
+                newBlocks[state] = signatures.computeIfAbsent(new Signature(signature), key -> signatures.size());
+            }
+
+            blocks = newBlocks;
+            if (signatures.size() == blockCount) {
+                return blocks;
+            }
+            blockCount = signatures.size();
+        }
+    }
+
+    /**
+     * Partitions the reachable states into classes of indistinguishable states by Hopcroft's partition
+     * refinement. Predecessors are looked up in an inverse transition index and every (class, symbol)
+     * splitter is processed from a worklist, which gives O(n log n) time for a fixed alphabet.
+     * Missing transitions lead to a virtual dead state that forms a class of its own, so incomplete DFAs
+     * are refined exactly as by {@link #partitionStates()}.
+     *
+     * @return The class of every state, or {@link #NO_STATE} for unreachable states.
+     */
+    public int[] partitionStatesHopcroft() {
+        boolean[] reachable = reachableStates();
+        int symbolCount = symbols.length;
+
+        // Renumber the reachable states to 0..size-1, the virtual dead state gets number size
+        int[] local = new int[stateNames.length];
+        int size = 0;
+        for (int state = 0; state < stateNames.length; state++) {
+            local[state] = reachable[state] ? size++ : NO_STATE;
+        }
+        int deadState = size;
+        int universe = size + 1;
+        int[] original = new int[size];
+        for (int state = 0; state < stateNames.length; state++) {
+            if (reachable[state]) {
+                original[local[state]] = state;
+            }
+        }
+
+        // Inverse transition index: predecessors of target t on symbol a are
+        // inverse[inverseStart[a * (universe + 1) + t] .. inverseStart[a * (universe + 1) + t + 1])
+        int[] inverseStart = new int[symbolCount * (universe + 1) + 1];
+        int[] inverse = new int[symbolCount * universe];
+        for (int source = 0; source < universe; source++) {
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                inverseStart[symbol * (universe + 1) + localStep(local, original, deadState, source, symbol) + 1]++;
+            }
+        }
+        for (int i = 1; i < inverseStart.length; i++) {
+            inverseStart[i] += inverseStart[i - 1];
+        }
+        int[] fill = Arrays.copyOf(inverseStart, inverseStart.length);
+        for (int source = 0; source < universe; source++) {
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int target = localStep(local, original, deadState, source, symbol);
+                inverse[fill[symbol * (universe + 1) + target]++] = source;
+            }
+        }
+
+        RefinablePartition partition = new RefinablePartition(universe);
+        for (int state = 0; state < size; state++) {
+            if (accepting[original[state]]) {
+                partition.mark(state);
+            }
+        }
+        partition.split(null);
+        partition.mark(deadState);
+        partition.split(null);
+
+        // All initial classes except the largest one are splitters for every symbol
+        Deque<int[]> worklist = new ArrayDeque<>();
+        boolean[] inWorklist = new boolean[universe * symbolCount];
+        int largest = 0;
+        for (int block = 1; block < partition.blockCount; block++) {
+            if (partition.size(block) > partition.size(largest)) {
+                largest = block;
+            }
+        }
+        for (int block = 0; block < partition.blockCount; block++) {
+            if (block != largest) {
+                for (int symbol = 0; symbol < symbolCount; symbol++) {
+                    worklist.add(new int[]{block, symbol});
+                    inWorklist[block * symbolCount + symbol] = true;
+                }
+            }
+        }
+
+        int[] splitter = new int[universe];
+        while (!worklist.isEmpty()) {
+            int[] entry = worklist.poll();
+            int block = entry[0];
+            int symbol = entry[1];
+            inWorklist[block * symbolCount + symbol] = false;
+
+            int splitterSize = partition.size(block);
+            System.arraycopy(partition.elements, partition.first[block], splitter, 0, splitterSize);
+            for (int i = 0; i < splitterSize; i++) {
+                int target = splitter[i];
+                int offset = symbol * (universe + 1) + target;
+                for (int j = inverseStart[offset]; j < inverseStart[offset + 1]; j++) {
+                    partition.mark(inverse[j]);
+                }
+            }
+
+            partition.split((oldBlock, newBlock) -> {
+                for (int a = 0; a < symbolCount; a++) {
+                    int splitBlock = inWorklist[oldBlock * symbolCount + a]
+                            || partition.size(newBlock) <= partition.size(oldBlock) ? newBlock : oldBlock;
+                    worklist.add(new int[]{splitBlock, a});
+                    inWorklist[splitBlock * symbolCount + a] = true;
+                }
+            });
+        }
+
+        // The dead state is alone in its class, number the remaining classes densely
+        int[] dense = new int[partition.blockCount];
+        Arrays.fill(dense, NO_STATE);
+        int blockCount = 0;
+        int[] blocks = new int[stateNames.length];
+        Arrays.fill(blocks, NO_STATE);
+        for (int state = 0; state < size; state++) {
+            int block = partition.blockOf[state];
+            if (dense[block] == NO_STATE) {
+                dense[block] = blockCount++;
+            }
+            blocks[original[state]] = dense[block];
+        }
+        return blocks;
+    }
+
+    /**
+     * Returns the successor of a renumbered state, sending missing transitions and the virtual
+     * dead state to the virtual dead state.
+     *
+     * @param local The renumbering of the original states.
+     * @param original The original number of every renumbered state.
+     * @param deadState The number of the virtual dead state.
+     * @param state The renumbered source state.
+     * @param symbol The number of the symbol.
+     * @return The renumbered target state.
+     */
+    private int localStep(int[] local, int[] original, int deadState, int state, int symbol) {
+        if (state == deadState) {
+            return deadState;
+        }
+        int nextState = step(original[state], symbol);
+        return nextState != NO_STATE ? local[nextState] : deadState;
+    }
+
+    /**
+     * Minimizes the DFA. Unreachable states are dropped and indistinguishable states are merged
+     * using {@link #partitionStatesHopcroft()}.
+     * The classes are numbered canonically: accepting classes come first and classes with the same
+     * acceptance are ordered by their smallest member. The resulting states are named q0, q1, q2, etc.
+     *
+     * @return The minimal DFA accepting the same language.
+     */
+    public CompactDFA minimize() {
+        return quotient(partitionStatesHopcroft());
+    }
+
+    /**
+     * Minimizes the DFA with the Moore-style refinement of {@link #partitionStates()}.
+     * The result is numbered in the same canonical way as by {@link #minimize()}.
+     *
+     * @return The minimal DFA accepting the same language.
+     */
+    public CompactDFA minimizeMoore() {
+        return quotient(partitionStates());
+    }
+
+    /**
+     * Builds the quotient automaton of the given partition of reachable states, numbering the classes
+     * canonically as described in {@link #minimize()}.
+     *
+     * @param blocks The class of every state, or {@link #NO_STATE} for states that are left out.
+     * @return The quotient DFA.
+     */
+    CompactDFA quotient(int[] blocks) {
+        int blockCount = 0;
+        for (int block : blocks) {
+            blockCount = Math.max(blockCount, block + 1);
+        }
+        int[] representatives = new int[blockCount];
+        Arrays.fill(representatives, NO_STATE);
+        for (int state = 0; state < blocks.length; state++) {
+            if (blocks[state] != NO_STATE && representatives[blocks[state]] == NO_STATE) {
+                representatives[blocks[state]] = state;
+            }
+        }
+
+        Integer[] order = new Integer[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator
+                .comparing((Integer block) -> !accepting[representatives[block]])
+                .thenComparingInt(block -> representatives[block]));
+        int[] rank = new int[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            rank[order[i]] = i;
+        }
+
+        String[] names = new String[blockCount];
+        boolean[] minimizedAccepting = new boolean[blockCount];
+        int[] minimizedTable = new int[blockCount * symbols.length];
+        for (int i = 0; i < blockCount; i++) {
+            int representative = representatives[order[i]];
+            names[i] = "q" + i;
+            minimizedAccepting[i] = accepting[representative];
+            for (int symbol = 0; symbol < symbols.length; symbol++) {
+                int nextState = step(representative, symbol);
+                minimizedTable[i * symbols.length + symbol] =
+                        nextState != NO_STATE ? rank[blocks[nextState]] : NO_STATE;
+            }
+        }
+
+        int minimizedInitial = initialState != NO_STATE && blocks[initialState] != NO_STATE
+                ? rank[blocks[initialState]] : NO_STATE;
+        return new CompactDFA(names, symbols, minimizedInitial, minimizedAccepting, minimizedTable);
+    }
+
+//---------------------------------------------Language inclusion-------------------------------------------------------
+
+    /**
+     * Checks whether the language of this DFA is a subset of the language of the other DFA over the same
+     * alphabet. The pairs of states reachable from the pair of initial states are explored breadth-first
+     * without building the product, a missing transition of the other DFA leads to its virtual dead state,
+     * and the search stops at the first pair accepted only by this DFA.
+     *
+     * @param other The DFA whose language is tested to contain the language of this DFA.
+     * @return true if every word accepted by this DFA is accepted by the other DFA, false otherwise.
+     */
+    public boolean isSubsetOf(CompactDFA other) {
+        if (!hasSameAlphabet(other)) {
+            throw new IllegalArgumentException("DFAs must have the same alphabet");
+        }
+        if (initialState == NO_STATE) {
+            return true;
+        }
+        int otherCount = other.stateNames.length + 1;
+        int deadState = otherCount - 1;
+        long pairCount = (long) stateNames.length * otherCount;
+        BitSet visitedPairs = pairCount <= Integer.MAX_VALUE ? new BitSet((int) pairCount) : null;
+        LongIntMap visitedKeys = visitedPairs == null ? new LongIntMap(stateNames.length) : null;
+
+        long[] queue = new long[16];
+        int head = 0;
+        int tail = 0;
+        int otherInitial = other.initialState != NO_STATE ? other.initialState : deadState;
+        queue[tail++] = pairKey(initialState, otherInitial);
+        markPair(visitedPairs, visitedKeys, initialState, otherInitial, otherCount);
+
+        while (head < tail) {
+            long pair = queue[head++];
+            int state = (int) (pair >>> 32);
+            int otherState = (int) pair;
+            if (accepting[state] && (otherState == deadState || !other.accepting[otherState])) {
+                return false;
+            }
+            for (int symbol = 0; symbol < symbols.length; symbol++) {
+                int nextState = step(state, symbol);
+                if (nextState == NO_STATE) {
+                    continue;
+                }
+                int nextOther = otherState != deadState ? other.step(otherState, symbol) : NO_STATE;
+                if (nextOther == NO_STATE) {
+                    nextOther = deadState;
+                }
+                if (markPair(visitedPairs, visitedKeys, nextState, nextOther, otherCount)) {
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, queue.length * 2);
+                    }
+                    queue[tail++] = pairKey(nextState, nextOther);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks the inclusion of the language of this DFA in the language of each of up to 64 candidates at once,
+     * see {@link InclusionKernel}.
+     *
+     * @param candidates The candidate DFAs over the same alphabet.
+     * @param count      The number of candidates to check, starting with the first one, at most 64.
+     * @return The mask whose bit i is set if the language of this DFA is a subset of the language of candidate i.
+     */
+    public long isSubsetOfEach(CompactDFA[] candidates, int count) {
+        return InclusionKernel.includedIn(this, candidates, count);
+    }
+
+    /**
+     * Marks a pair of states as visited in whichever of the two visited sets is in use.
+     *
+     * @param visitedPairs The bitset of visited pairs indexed by {@code state * otherCount + otherState}, or null.
+     * @param visitedKeys  The map of keys of visited pairs used when the bitset would be too large, or null.
+     * @param state        The state of the first DFA.
+     * @param otherState   The state of the second DFA.
+     * @param otherCount   The number of states of the second DFA including its virtual dead state.
+     * @return true if the pair was not visited before, false otherwise.
+     */
+    private static boolean markPair(BitSet visitedPairs, LongIntMap visitedKeys, int state, int otherState,
+                                    int otherCount) {
+        if (visitedPairs == null) {
+            return visitedKeys.putIfAbsent(pairKey(state, otherState), 0) == NO_STATE;
+        }
+        int bit = state * otherCount + otherState;
+        if (visitedPairs.get(bit)) {
+            return false;
+        }
+        visitedPairs.set(bit);
+        return true;
+    }
+
+//---------------------------------------------Product of automata------------------------------------------------------
+
+    /**
+     * The name used for the missing component of a pair state whose DFA has no transition left.
+     */
+    private static final String DEAD_STATE_NAME = "\u2205";
+
+    /**
+     * Computes the product of two compact DFAs over the same alphabet. Only pairs of states reachable
+     * from the pair of initial states are constructed, and a pair is accepting if both of its components
+     * are accepting. A pair state is named by the sorted, comma-separated names of its components.
+     *
+     * @param first  The first DFA.
+     * @param second The second DFA.
+     * @return The product DFA accepting the intersection of both languages.
+     */
+    public static CompactDFA product(CompactDFA first, CompactDFA second) {
+        return product(first, second, ProductOperation.INTERSECTION);
+    }
+
+    /**
+     * Computes the product of two compact DFAs over the same alphabet for the given operation.
+     * Pair states are encoded as longs and indexed in a primitive hash map, and only pairs reachable from
+     * the pair of initial states are constructed. A missing transition of one DFA leads its component to
+     * a virtual dead state, and pairs that cannot accept any word under the operation are left out, so
+     * their transitions stay undefined. Acceptance of a pair is decided from the accepting flags of its
+     * components. A pair state is named by the sorted, comma-separated names of its components, with
+     * a dead component named {@value #DEAD_STATE_NAME}.
+     *
+     * @param first     The first DFA.
+     * @param second    The second DFA.
+     * @param operation The operation combining the languages of both DFAs.
+     * @return The product DFA accepting the combination of both languages.
+     */
+    public static CompactDFA product(CompactDFA first, CompactDFA second, ProductOperation operation) {
+        if (!first.hasSameAlphabet(second)) {
+            throw new IllegalArgumentException("DFAs must have the same alphabet");
+        }
+        int symbolCount = first.symbols.length;
+        if (!isLivePair(first.initialState, second.initialState, operation)) {
+            return new CompactDFA(new String[0], first.symbols, NO_STATE, new boolean[0], new int[0]);
+        }
+        LongIntMap pairIndex = new LongIntMap(Math.max(first.stateNames.length, second.stateNames.length));
+        int[] firstOf = new int[16];
+        int[] secondOf = new int[16];
+        int[] table = new int[16 * symbolCount];
+        int count = 0;
+
+        pairIndex.putIfAbsent(pairKey(first.initialState, second.initialState), 0);
+        firstOf[0] = first.initialState;
+        secondOf[0] = second.initialState;
+        count++;
+
+        for (int current = 0; current < count; current++) {
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int nextFirst = firstOf[current] != NO_STATE ? first.step(firstOf[current], symbol) : NO_STATE;
+                int nextSecond = secondOf[current] != NO_STATE ? second.step(secondOf[current], symbol) : NO_STATE;
+                int next = NO_STATE;
+                if (isLivePair(nextFirst, nextSecond, operation)) {
+                    next = pairIndex.putIfAbsent(pairKey(nextFirst, nextSecond), count);
+                    if (next == NO_STATE) {
+                        next = count++;
+                        if (count > firstOf.length) {
+                            firstOf = Arrays.copyOf(firstOf, firstOf.length * 2);
+                            secondOf = Arrays.copyOf(secondOf, secondOf.length * 2);
+                        }
+                        firstOf[next] = nextFirst;
+                        secondOf[next] = nextSecond;
+                    }
+                }
+                if ((current + 1) * symbolCount > table.length) {
+                    table = Arrays.copyOf(table, table.length * 2);
+                }
+                table[current * symbolCount + symbol] = next;
+            }
+        }
+
+        String[] names = new String[count];
+        boolean[] accepting = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            String firstName = firstOf[i] != NO_STATE ? first.stateNames[firstOf[i]] : DEAD_STATE_NAME;
+            String secondName = secondOf[i] != NO_STATE ? second.stateNames[secondOf[i]] : DEAD_STATE_NAME;
+            names[i] = pairName(firstName, secondName);
+            accepting[i] = operation.accepts(firstOf[i] != NO_STATE && first.accepting[firstOf[i]],
+                    secondOf[i] != NO_STATE && second.accepting[secondOf[i]]);
+        }
+        return new CompactDFA(names, first.symbols, 0, accepting, Arrays.copyOf(table, count * symbolCount));
+    }
+
+    /**
+     * The number of operands of an n-ary intersection below which the merges run on the current thread.
+     */
+    private static final int PARALLEL_INTERSECTION_THRESHOLD = 16;
+
+    /**
+     * Computes the intersection of the languages of the given compact DFAs over the same alphabet.
+     * The operands are merged pairwise along a balanced tree and every intermediate result is minimized,
+     * so intermediate products stay as small as the languages allow. A merge whose operand already
+     * contains the language of the other one returns the other one without building a product.
+     * Independent subtrees are merged in parallel in the common fork/join pool. The given list is not modified.
+     *
+     * @param dfas The DFAs to intersect.
+     * @return The minimal DFA accepting the intersection of all languages.
+     * @throws IllegalArgumentException if the list is empty or the DFAs have different alphabets.
+     */
+    public static CompactDFA intersection(List<CompactDFA> dfas) {
+        if (dfas.isEmpty()) {
+            throw new IllegalArgumentException("The set of DFAs cannot be empty");
+        }
+        return new IntersectionTask(dfas.toArray(new CompactDFA[0]), 0, dfas.size()).invoke();
+    }
+
+    /**
+     * Merges two minimal DFAs into the minimal DFA of the intersection of their languages.
+     *
+     * @param first  The first minimal DFA.
+     * @param second The second minimal DFA.
+     * @return The minimal DFA accepting the intersection.
+     */
+    private static CompactDFA intersect(CompactDFA first, CompactDFA second) {
+        if (first.isSubsetOf(second)) {
+            return first;
+        }
+        if (second.isSubsetOf(first)) {
+            return second;
+        }
+        return product(first, second).minimize();
+    }
+
+    /**
+     * Fork/join task intersecting a range of operands by splitting it into two halves.
+     */
+    private static final class IntersectionTask extends RecursiveTask<CompactDFA> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient CompactDFA[] dfas;
+        private final int from;
+        private final int to;
+
+        private IntersectionTask(CompactDFA[] dfas, int from, int to) {
+            this.dfas = dfas;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected CompactDFA compute() {
+            if (to - from == 1) {
+                return dfas[from].minimize();
+            }
+            int middle = (from + to) >>> 1;
+            IntersectionTask left = new IntersectionTask(dfas, from, middle);
+            IntersectionTask right = new IntersectionTask(dfas, middle, to);
+            if (to - from < PARALLEL_INTERSECTION_THRESHOLD) {
+                return intersect(left.compute(), right.compute());
+            }
+            right.fork();
+            CompactDFA leftResult = left.compute();
+            return intersect(leftResult, right.join());
+        }
+    }
+
+    /**
+     * Decides whether a pair of states may still lead to an accepting pair, i.e. whether it is kept
+     * in the product. A pair with a dead component is kept only if the operation accepts words rejected
+     * by that component.
+     *
+     * @param first     The state of the first DFA or {@link #NO_STATE}.
+     * @param second    The state of the second DFA or {@link #NO_STATE}.
+     * @param operation The operation of the product.
+     * @return true if the pair is kept, false otherwise.
+     */
+    private static boolean isLivePair(int first, int second, ProductOperation operation) {
+        if (first == NO_STATE) {
+            return second != NO_STATE && operation.accepts(false, true);
+        }
+        return second != NO_STATE || operation.accepts(true, false);
+    }
+
+    /**
+     * Creates a copy of this DFA whose states named like a state of the other DFA get the suffix "_1",
+     * so that the names of both DFAs do not clash in a product.
+     *
+     * @param takenNames The state names of the other DFA.
+     * @return This DFA if no name clashes, otherwise a renamed copy sharing the transition table.
+     */
+    CompactDFA renamedApart(Set<String> takenNames) {
+        String[] renamed = stateNames.clone();
+        boolean changed = false;
+        for (int i = 0; i < renamed.length; i++) {
+            if (takenNames.contains(renamed[i])) {
+                renamed[i] = renamed[i] + "_1";
+                changed = true;
+            }
+        }
+        return changed ? new CompactDFA(renamed, symbols, initialState, accepting, table) : this;
+    }
+
+    /**
+     * Creates a copy of this DFA over other symbols with the same number of symbols, symbol i of this DFA
+     * becoming symbol i of the copy. Renaming the symbols bijectively keeps the DFA prime or composite,
+     * so DFAs over different alphabets of the same size can share candidates.
+     *
+     * @param renamedSymbols The new symbols, indexed by symbol number.
+     * @return A copy sharing the transition table of this DFA.
+     * @throws IllegalArgumentException if the number of symbols differs.
+     */
+    CompactDFA withSymbols(String[] renamedSymbols) {
+        if (renamedSymbols.length != symbols.length) {
+            throw new IllegalArgumentException("The number of symbols must stay " + symbols.length);
+        }
+        return new CompactDFA(stateNames, renamedSymbols, initialState, accepting, table);
+    }
+
+    /**
+     * Creates a copy of this DFA over the given symbols, symbol i of the copy reading the transition column
+     * of symbol {@code columns[i]} of this DFA. The states keep their names and numbers.
+     *
+     * @param newSymbols The symbols of the copy, indexed by symbol number.
+     * @param columns    The symbol of this DFA whose transitions every symbol of the copy takes.
+     * @return The copy with the selected transition columns.
+     */
+    CompactDFA withColumns(String[] newSymbols, int[] columns) {
+        int[] newTable = new int[stateNames.length * newSymbols.length];
+        for (int state = 0; state < stateNames.length; state++) {
+            for (int symbol = 0; symbol < newSymbols.length; symbol++) {
+                newTable[state * newSymbols.length + symbol] = table[state * symbols.length + columns[symbol]];
+            }
+        }
+        return new CompactDFA(stateNames, newSymbols, initialState, accepting, newTable);
+    }
+
+    /**
+     * Encodes a pair of states into a single key.
+     *
+     * @param first  The state of the first DFA.
+     * @param second The state of the second DFA.
+     * @return The key of the pair.
+     */
+    static long pairKey(int first, int second) {
+        return ((long) first << 32) | (second & 0xffffffffL);
+    }
+
+    /**
+     * Names a pair state by its sorted, comma-separated component names.
+     *
+     * @param first  The name of the first component.
+     * @param second The name of the second component.
+     * @return The name of the pair state.
+     */
+    private static String pairName(String first, String second) {
+        return first.compareTo(second) <= 0 ? first + "," + second : second + "," + first;
+    }
+
+    /**
+     * Callback invoked whenever a class of a {@link RefinablePartition} is split.
+     */
+    private interface SplitListener {
+        void split(int oldBlock, int newBlock);
+    }
+
+    /**
+     * Partition of the numbers 0..size-1 into classes stored as contiguous ranges of a single array.
+     * Elements are marked by moving them to the front of their class, and splitting a class moves
+     * its marked elements into a new class, so both operations cost time proportional to the number
+     * of marked elements.
+     */
+    private static final class RefinablePartition {
+        private final int[] elements;
+        private final int[] location;
+        private final int[] blockOf;
+        private final int[] first;
+        private final int[] end;
+        private final int[] mid;
+        private final int[] touched;
+        private int touchedCount;
+        private int blockCount;
+
+        private RefinablePartition(int size) {
+            elements = new int[size];
+            location = new int[size];
+            blockOf = new int[size];
+            first = new int[size];
+            end = new int[size];
+            mid = new int[size];
+            touched = new int[size];
+            for (int i = 0; i < size; i++) {
+                elements[i] = i;
+                location[i] = i;
+            }
+            if (size > 0) {
+                end[0] = size;
+                blockCount = 1;
+            }
+        }
+
+        private int size(int block) {
+            return end[block] - first[block];
+        }
+
+        /**
+         * Marks the element by moving it to the marked front part of its class.
+         *
+         * @param element The element to mark.
+         */
+        private void mark(int element) {
+            int block = blockOf[element];
+            int position = location[element];
+            int marker = mid[block];
+            if (position < marker) {
+                return;
+            }
+            if (marker == first[block]) {
+                touched[touchedCount++] = block;
+            }
+            int other = elements[marker];
+            elements[marker] = element;
+            location[element] = marker;
+            elements[position] = other;
+            location[other] = position;
+            mid[block]++;
+        }
+
+        /**
+         * Splits every class with marked elements into its marked and unmarked part and clears the marks.
+         * Classes whose elements are all marked stay unchanged.
+         *
+         * @param listener The callback notified about every new class, may be null.
+         */
+        private void split(SplitListener listener) {
+            while (touchedCount > 0) {
+                int block = touched[--touchedCount];
+                if (mid[block] == end[block]) {
+                    mid[block] = first[block];
+                    continue;
+                }
+                int newBlock = blockCount++;
+                first[newBlock] = first[block];
+                end[newBlock] = mid[block];
+                mid[newBlock] = first[newBlock];
+                first[block] = mid[block];
+                for (int i = first[newBlock]; i < end[newBlock]; i++) {
+                    blockOf[elements[i]] = newBlock;
+                }
+                if (listener != null) {
+                    listener.split(block, newBlock);
+                }
+            }
+        }
+    }
+
+    /**
+     * Wrapper giving an int array value semantics, so that state signatures can be used as hash keys.
+     */
+    private static final class Signature {
+        private final int[] values;
+        private final int hash;
+
+        private Signature(int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Signature other && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -4,10 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigInteger;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 
 @Data
 @AllArgsConstructor
@@ -19,6 +22,18 @@ public class DFA {
     private Set<String> acceptStates;
     private Map<Map<String, String>, String> transitionFunction;
 
+    /**
+     * Returns the state reached from the given state by reading the given symbol.
+     * The lookup probes the transition function with a reusable key, so it does not allocate a transition key.
+     *
+     * @param state The source state.
+     * @param symbol The symbol to read.
+     * @return The target state, or null if the transition is not defined.
+     */
+    public String step(String state, String symbol) {
+        return TransitionLookup.step(transitionFunction, state, symbol);
+    }
+
     /**
      * Prints the components of the DFA to the standard output.
      * This includes the set of states, input alphabet, initial state,
@@ -40,9 +55,7 @@ public class DFA {
         for (String state : states) {
             System.out.print(state);
             for (String symbol : alphabet) {
-                Map<String, String> transitionKey = new HashMap<>();
-                transitionKey.put(state, symbol);
-                String nextState = transitionFunction.get(transitionKey);
+                String nextState = step(state, symbol);
                 System.out.print("\t" + (nextState != null ? nextState : "-"));
             }
             System.out.println();
@@ -57,9 +70,7 @@ public class DFA {
 
         for (String state : states) {
             for (String symbol : alphabet) {
-                Map<String, String> transitionKey = new HashMap<>();
-                transitionKey.put(state, symbol);
-                String nextState = transitionFunction.get(transitionKey);
+                String nextState = step(state, symbol);
                 if(nextState != null){
                     System.out.println(symbol + "," + state + "->" + nextState);
                 }
@@ -90,25 +101,18 @@ public class DFA {
      * @return A set of reachable states. If the initial state is not defined, returns null.
      */
     public Set<String> reachableStates() {
-        Set<String> S = new HashSet<>();
         if (initialState == null) {
             return null;
         }
-        S.add(initialState);
-        Set<String> oldS;
+        CompactDFA dfa = compressedCompact();
+        boolean[] reachable = dfa.reachableStates();
 
-        do {
-            oldS = new HashSet<>(S);
-            for (String state : oldS) {
-                for (String symbol : alphabet) {
-                    String nextState = transitionFunction.get(Map.of(state, symbol));
-                    if (nextState != null) {
-                        S.add(nextState);
-                    }
-                }
+        Set<String> S = new HashSet<>();
+        for (int state = 0; state < reachable.length; state++) {
+            if (reachable[state]) {
+                S.add(dfa.getStateName(state));
             }
-        } while (!S.equals(oldS));
-
+        }
         return S;
     }
 
@@ -131,66 +135,12 @@ public class DFA {
         acceptStates.retainAll(reachableStates);
     }
 
-    /**
-     * Partitions the states of the automaton into equivalence classes based on
-     * their indistinguishability. The first partition contains accepting states,
-     * and the second contains rejecting states. The partitioning continues
-     * until no further distinctions between states can be made.
-     *
-     * @return A list of sets, where each set represents a partition of indistinguishable states.
-     */
-    private List<Set<String>> partitionStates() {
-        List<Set<String>> partitions = new ArrayList<>();
-        Set<String> rejectingStates = new HashSet<>(states);
-        rejectingStates.removeAll(acceptStates);
-
-        partitions.add(acceptStates);
-        partitions.add(rejectingStates);
-
-        boolean changed;
-
-        do {
-            changed = false;
-            List<Set<String>> newPartitions = new ArrayList<>();
-
-            for (Set<String> group : partitions) {
-                Map<String, Set<String>> splitGroups = new HashMap<>();
-
-                for (String state : group) {
-                    String signature = "";
-                    for (String symbol : alphabet) {
-                        String nextState = transitionFunction.get(Map.of(state, symbol));
-                        if (nextState != null) {
-                            for (int i = 0; i < partitions.size(); i++) {
-                                if (partitions.get(i).contains(nextState)) {
-                                    signature += i;
-                                    break;
-                                }
-                            }
-                        }
-                    }
-
-                    splitGroups.computeIfAbsent(signature, k -> new HashSet<>()).add(state);
-                }
-
-                newPartitions.addAll(splitGroups.values());
-
-                if (splitGroups.size() > 1) {
-                    changed = true;
-                }
-            }
-
-            partitions = newPartitions;
-        } while (changed);
-
-        return partitions;
-    }
-
     /**
      * Minimizes the deterministic finite automaton (DFA) by:
      * 1. Removing unreachable states.
      * 2. Partitioning the states into indistinguishable equivalence classes.
      * 3. Constructing a new minimized DFA based on the partitioned states.
+     * The partitioning runs on the compact representation of the DFA, see {@link CompactDFA#minimize()}.
      *
      * @return A new minimized DFA with the same behavior as the original DFA but with fewer states.
      */
@@ -207,48 +157,9 @@ public class DFA {
         //1.
         removeUnreachableStates();
 
-        //2.
-        List<Set<String>> partitions = partitionStates();
-
-        //3.
-        Map<Map<String, String>, String> minimizedTransitions = new HashMap<>();
-        Map<String, String> stateMapping = new HashMap<>();
-        int index = 0;
-
-        for (Set<String> group : partitions) {
-            String newState = "q" + index++;
-            for (String oldState : group) {
-                stateMapping.put(oldState, newState);
-            }
-        }
-
-        for (Map.Entry<Map<String, String>, String> entry : transitionFunction.entrySet()) {
-            String fromState = entry.getKey().keySet().iterator().next();
-            String symbol = entry.getKey().values().iterator().next();
-            String toState = entry.getValue();
-
-            String newFromState = stateMapping.get(fromState);
-            String newToState = stateMapping.get(toState);
-
-            if (newFromState != null && newToState != null) {
-                minimizedTransitions.put(Map.of(newFromState, symbol), newToState);
-            }
-        }
-
-        Set<String> minimizedAcceptingStates = new HashSet<>();
-        for (String acceptingState : acceptStates) {
-            minimizedAcceptingStates.add(stateMapping.get(acceptingState));
-        }
-
-        String minimizedInitialState = stateMapping.get(initialState);
-
-        return new DFA(
-                new HashSet<>(stateMapping.values()),
-                alphabet,
-                minimizedInitialState,
-                minimizedAcceptingStates,
-                minimizedTransitions
-        );
+        //2. and 3.
+        CompactDFA dfa = CompactDFA.of(this);
+        return dfa.quotient(LetterClasses.of(dfa).compress(dfa).partitionStatesHopcroft()).toDFA();
     }
 
 //----------------------------------------------Complete automaton------------------------------------------------------
@@ -263,7 +174,7 @@ public class DFA {
     public boolean isComplete() {
         for (String state : states) {
             for (String symbol : alphabet) {
-                if (transitionFunction.get(Map.of(state, symbol)) == null) {
+                if (step(state, symbol) == null) {
                     return false;
                 }
             }
@@ -272,21 +183,18 @@ public class DFA {
     }
 
     /**
-     * Helper method to check if a given state has any outgoing transitions.
+     * Helper method to collect the states that have any outgoing transitions.
      * A state is considered to have outgoing transitions if there is at least
-     * one transition from the state on any symbol in the alphabet.
+     * one transition from the state on any symbol.
      *
-     * @param state The state to check for outgoing transitions.
-     * @return true if the state has outgoing transitions, false otherwise.
+     * @return The set of states with outgoing transitions.
      */
-    private boolean hasOutgoingTransitions(String state) {
-        for (Map.Entry<Map<String, String>, String> entry : transitionFunction.entrySet()) {
-            String fromState = entry.getKey().keySet().iterator().next();
-            if (fromState.equals(state)) {
-                return true;
-            }
+    private Set<String> statesWithOutgoingTransitions() {
+        Set<String> sources = new HashSet<>();
+        for (Map<String, String> key : transitionFunction.keySet()) {
+            sources.addAll(key.keySet());
         }
-        return false;
+        return sources;
     }
 
     /**
@@ -307,13 +215,14 @@ public class DFA {
 
         Set<String> newStates = new HashSet<>(states);
         Map<Map<String, String>, String> newTransitions = new HashMap<>(transitionFunction);
+        Set<String> sources = statesWithOutgoingTransitions();
 
         for (String state : states) {
             for (String symbol : alphabet) {
-                String transitionTarget = transitionFunction.get(Map.of(state, symbol));
+                String transitionTarget = step(state, symbol);
 
                 if (transitionTarget == null) {
-                    if ((acceptStates == null || !acceptStates.contains(state)) && !hasOutgoingTransitions(state)) {
+                    if ((acceptStates == null || !acceptStates.contains(state)) && !sources.contains(state)) {
                         newTransitions.put(Map.of(state, symbol), state);
                     } else {
                         newTransitions.put(Map.of(state, symbol), sinkState);
@@ -344,77 +253,47 @@ public class DFA {
      * @return true if the transition function is a permutation for each symbol, false otherwise.
      */
     public boolean isPermutation() {
-        for (String symbol : alphabet) {
-            Set<String> S = new HashSet<>();
-
-            for (String state : states) {
-                String nextState = transitionFunction.get(Map.of(state, symbol));
-                if (nextState != null) {
-                    if (S.contains(nextState)) {
-                        return false;
-                    } else {
-                        S.add(nextState);
-                    }
-                }
-            }
-
-            if (S.size() != states.size()) {
-                return false;
-            }
-        }
+        return compressedCompact().isPermutation();
+    }
 
-        return true;
+    /**
+     * Computes the transition group of the permutation DFA, generated by the permutations of the states induced
+     * by its letters, with a base and strong generating set for queries on its order, orbits and stabilizers.
+     *
+     * @return The transition group acting on the states of the compact form of the DFA.
+     * @throws IllegalArgumentException if the DFA is not a permutation DFA.
+     */
+    public PermutationGroup getTransitionGroup() {
+        return PermutationGroup.of(compressedCompact());
     }
 
 //--------------------------------------------Commutative automaton-----------------------------------------------------
 
     /**
-     * Checks whether the DFA is commutative.
-     * Implements an algorithm that verifies the existence of specific transition behaviors
-     * that contradict the commutative property, by relying on methods from the Pattern Logic.
+     * Checks whether the DFA is commutative, i.e. whether reading any two words in either order
+     * leads to the same state. It suffices to check that every pair of letters commutes in every state,
+     * see {@link #findCommutativityCounterexample()}.
      *
      * @return true if the DFA is commutative; false otherwise.
      */
     public boolean isCommutative() {
-        for (String q : states) {
-            for (String qu : states) {
-                for (String qv : states) {
-                    for (String quv : states) {
-                        for (String qvu : states) {
-
-                            DFA A1 = new DFA(this.states, this.getAlphabet(), this.initialState, this.acceptStates,
-                                    this.transitionFunction);
-                            A1.setInitialState(q);
-                            A1.setAcceptStates(Set.of(qu));
-
-                            DFA A2 = new DFA(this.states, this.getAlphabet(), this.initialState, this.acceptStates,
-                                    this.transitionFunction);
-                            A2.setInitialState(qv);
-                            A2.setAcceptStates(Set.of(qvu));
-
-                            DFA Au = product(A1, A2);
-
-                            DFA A11 = new DFA(this.states, this.getAlphabet(), this.initialState, this.acceptStates,
-                                    this.transitionFunction);
-                            A11.setInitialState(q);
-                            A11.setAcceptStates(Set.of(qv));
-
-                            DFA A22 = new DFA(this.states, this.getAlphabet(), this.initialState, this.acceptStates,
-                                    this.transitionFunction);
-                            A22.setInitialState(qu);
-                            A22.setAcceptStates(Set.of(quv));
-
-                            DFA Av = product(A11, A22);
-
-                            if (Au.isAcceptStateReachable() && Av.isAcceptStateReachable() && !quv.equals(qvu)) {
-                                return false;
-                            }
-                        }
-                    }
-                }
-            }
+        return findCommutativityCounterexample() == null;
+    }
+
+    /**
+     * Searches for a state q and letters a, b such that reading ab from q leads to a different state
+     * than reading ba. A missing transition is treated as a transition into a sink state.
+     *
+     * @return The triple of the state and the two letters, or null if the DFA is commutative.
+     */
+    public Triple<String, String, String> findCommutativityCounterexample() {
+        CompactDFA dfa = compressedCompact();
+        int[] counterexample = dfa.findNonCommutingPair();
+        if (counterexample == null) {
+            return null;
         }
-        return true;
+        return Triple.of(dfa.getStateName(counterexample[0]), dfa.getSymbol(counterexample[1]),
+                dfa.getSymbol(counterexample[2]));
     }
 
 //--------------------------------------------isPrime_general_algorithm-------------------------------------------------
@@ -423,19 +302,26 @@ public class DFA {
      * Generates all possible deterministic finite automata (DFAs) with a given number of states.
      * The method creates all possible transition functions and valid accepting state combinations,
      * then checks whether the language of the original DFA is a subset of the language
-     * of the generated DFA. Only valid DFAs are returned.
+     * of the generated DFA. The candidates are checked in blocks of 64 with one batched inclusion
+     * check per block, see {@link CompactDFA#isSubsetOfEach(CompactDFA[], int)}. Only valid DFAs are returned.
      *
      * @param numStates The number of states to generate for the DFAs.
      * @return A set of valid DFAs.
      */
     public Set<DFA> generateAllDFAs(int numStates) {
         Set<DFA> validDFAs = new HashSet<>();
+        CompactDFA compact = CompactDFA.of(this);
 
         Set<String> states = new HashSet<>();
         for (int i = 0; i < numStates; i++) {
             states.add("q" + i);
         }
 
+        List<Map<Map<String, String>, String>> transitionList = generateAllTransitionFunctions(states, alphabet);
+        DFA[] block = new DFA[InclusionKernel.LANES];
+        CompactDFA[] compactBlock = new CompactDFA[InclusionKernel.LANES];
+        int count = 0;
+
         for (int acceptMask = 1; acceptMask < (1 << numStates); acceptMask++) {
             Set<String> acceptStates = new HashSet<>();
             int stateIndex = 0;
@@ -446,23 +332,38 @@ public class DFA {
                 stateIndex++;
             }
 
-            List<Map<Map<String, String>, String>> transitionList = generateAllTransitionFunctions(states, alphabet);
-
             for (Map<Map<String, String>, String> transitionFunction : transitionList) {
                 DFA newDFA = new DFA(states, alphabet, "q0", acceptStates, transitionFunction);
 
-                newDFA.flipAcceptStates();
-                DFA finalDfa = product(this, newDFA);
-                newDFA.flipAcceptStates();
-
-                if (!finalDfa.isAcceptStateReachable()) {
-                    validDFAs.add(newDFA);
+                block[count] = newDFA;
+                compactBlock[count++] = CompactDFA.of(newDFA);
+                if (count == block.length) {
+                    addIncludedDFAs(compact, block, compactBlock, count, validDFAs);
+                    count = 0;
                 }
             }
         }
+        addIncludedDFAs(compact, block, compactBlock, count, validDFAs);
         return validDFAs;
     }
 
+    /**
+     * Adds the DFAs of a block whose language contains the language of the given DFA to the set,
+     * checking the whole block with one batched inclusion check.
+     *
+     * @param compact The compact form of the DFA whose language must be accepted.
+     * @param block The DFAs of the block.
+     * @param compactBlock The compact forms of the DFAs of the block.
+     * @param count The number of DFAs in the block.
+     * @param validDFAs The set receiving the DFAs that pass.
+     */
+    private static void addIncludedDFAs(CompactDFA compact, DFA[] block, CompactDFA[] compactBlock, int count,
+                                        Set<DFA> validDFAs) {
+        for (long lanes = compact.isSubsetOfEach(compactBlock, count); lanes != 0; lanes &= lanes - 1) {
+            validDFAs.add(block[Long.numberOfTrailingZeros(lanes)]);
+        }
+    }
+
     /**
      * Helper method to generate all possible transition functions for a given set of states and alphabet.
      * The method iterates over all possible combinations of state transitions to create a list of
@@ -471,11 +372,16 @@ public class DFA {
      * @param states   The set of DFA states.
      * @param alphabet The alphabet used for transitions.
      * @return A list of all possible transition functions.
+     * @throws IllegalArgumentException if there are too many transition functions to fit into a list.
      */
     public List<Map<Map<String, String>, String>> generateAllTransitionFunctions(Set<String> states, Set<String> alphabet) {
         List<Map<Map<String, String>, String>> transitionList = new ArrayList<>();
         int numStates = states.size();
-        int totalCombinations = (int) Math.pow(numStates, numStates * alphabet.size());
+        BigInteger combinations = BigInteger.valueOf(numStates).pow(numStates * alphabet.size());
+        if (combinations.bitLength() >= Integer.SIZE - 1) {
+            throw new IllegalArgumentException("Too many transition functions to list: " + combinations);
+        }
+        int totalCombinations = combinations.intValue();
 
         List<String> stateList = new ArrayList<>(states);
 
@@ -505,16 +411,73 @@ public class DFA {
      * @return A set of smaller DFAs that accept the language of the original DFA.
      */
     public Set<DFA> getAlphaDFA() {
-        Set<DFA> alphaDFA = new HashSet<>();
+        return getAlphaDFA(FactorSearch.BRUTE_FORCE);
+    }
+
+    /**
+     * Generates the set alpha(A) with the given search engine. The parallel engine tests the canonical
+     * candidates of {@link CanonicalCandidateSpliterator} in a parallel stream. The library engine tests
+     * only the minimal DFAs stored in the {@link MinimalDFALibrary}. The backtracking engine
+     * only generates, for every transition function, the candidate with the smallest accepting set
+     * containing the language of the original DFA, and leaves out candidates accepting every word.
+     * These are the candidates that determine the roof.
+     * <p>
+     * Accepted candidates are minimized in compact form and deduplicated by their {@link CanonicalForm},
+     * so candidates accepting the same language are converted to a DFA only once.
+     *
+     * @param search The engine searching the candidates.
+     * @return A set of smaller DFAs that accept the language of the original DFA.
+     */
+    public Set<DFA> getAlphaDFA(FactorSearch search) {
+        return getAlphaDFA(search, MinimalDFALibrary.getDefault());
+    }
+
+    /**
+     * Generates the set alpha(A) from the minimal DFAs stored in the given library.
+     *
+     * @param library The library of minimal DFAs to scan.
+     * @return A set of smaller DFAs that accept the language of the original DFA.
+     */
+    public Set<DFA> getAlphaDFA(MinimalDFALibrary library) {
+        return getAlphaDFA(FactorSearch.LIBRARY, library);
+    }
+
+    private Set<DFA> getAlphaDFA(FactorSearch search, MinimalDFALibrary library) {
+        CompactDFA compact = CompactDFA.of(this);
+        Set<CanonicalForm> forms = new HashSet<>();
 
         for (int numStates = 1; numStates < states.size(); numStates++) {
-            Set<DFA> generatedDFAs = generateAllDFAs(numStates);
-            generatedDFAs.forEach(dfa -> alphaDFA.add(dfa.minimize().completeDFA()));
-            for (DFA dfa : generatedDFAs) {
-                System.out.println("\nGenerated DFA:");
-                dfa.printDFA();
+            if (search == FactorSearch.BACKTRACKING) {
+                BacktrackingCandidateSearch.search(compact, numStates, candidate -> {
+                    forms.add(CanonicalForm.of(candidate));
+                    return false;
+                });
+            } else if (search == FactorSearch.PARALLEL) {
+                forms.addAll(CanonicalCandidateSpliterator.stream(compact, numStates, true)
+                        .filter(compact::isSubsetOf)
+                        .map(CanonicalForm::of)
+                        .collect(Collectors.toSet()));
+            } else {
+                Iterator<CompactDFA> candidates = candidates(compact, numStates, search, library);
+                CompactDFA[] block = new CompactDFA[InclusionKernel.LANES];
+                while (candidates.hasNext()) {
+                    int count = 0;
+                    while (count < block.length && candidates.hasNext()) {
+                        block[count++] = candidates.next();
+                    }
+                    for (long lanes = compact.isSubsetOfEach(block, count); lanes != 0; lanes &= lanes - 1) {
+                        CompactDFA candidate = block[Long.numberOfTrailingZeros(lanes)];
+                        // Library entries are already minimal
+                        forms.add(search == FactorSearch.LIBRARY ? CanonicalForm.ofMinimal(candidate) : CanonicalForm.of(candidate));
+                    }
+                }
             }
         }
+
+        Set<DFA> alphaDFA = new HashSet<>();
+        for (CanonicalForm form : forms) {
+            alphaDFA.add(form.toCompactDFA().toDFA().completeDFA());
+        }
         return alphaDFA;
     }
 
@@ -579,139 +542,186 @@ public class DFA {
      * @return The product of the two DFAs as a new DFA.
      */
     public static DFA product(DFA dfa1, DFA dfa2) {
-        if (dfa1.getAlphabet() != dfa2.getAlphabet()) {
+        return product(dfa1, dfa2, ProductOperation.INTERSECTION);
+    }
+
+    /**
+     * Computes the product of two DFAs for the given operation on their languages.
+     * Neither DFA is modified: states of the second DFA sharing a name with a state of the first DFA
+     * only get the suffix "_1" inside the names of the pair states.
+     *
+     * @param dfa1      The first DFA.
+     * @param dfa2      The second DFA.
+     * @param operation The operation combining the languages of both DFAs.
+     * @return The product of the two DFAs as a new DFA.
+     */
+    public static DFA product(DFA dfa1, DFA dfa2, ProductOperation operation) {
+        if (!dfa1.getAlphabet().equals(dfa2.getAlphabet())) {
             throw new IllegalArgumentException("DFAs must have the same alphabet");
         }
 
-        dfa1.renameStatesIfConflict(dfa2);
-
-        Map<Map<String, String>, String> dfaTransitions = new HashMap<>();
-        Set<String> q0Closure = new HashSet<>();
-        q0Closure.add(dfa2.getInitialState());
-        q0Closure.add(dfa1.getInitialState());
-        List<Set<String>> qDone = new ArrayList<>();
-        List<Set<String>> qList = new ArrayList<>();
-        qList.add(q0Closure);
-
-        while (!qList.isEmpty()) {
-            Set<String> state = qList.get(0);
-            qDone.add(state);
-            qList.remove(0);
-
-            for (String symbol : dfa1.getAlphabet()) {
-                Set<String> transitions = new HashSet<>();
-
-                for (String i : state) {
-                    Map<String, String> key = Map.of(i, symbol);
-                    String transition1 = dfa1.getTransitionFunction().get(key);
-                    String transition2 = dfa2.getTransitionFunction().get(key);
-                    if (transition1 != null) {
-                        transitions.add(transition1);
-                    }
-                    if (transition2 != null) {
-                        transitions.add(transition2);
-                    }
-                }
-
-                if (!transitions.isEmpty()) {
-                    dfaTransitions.put(
-                            Map.of(sortedStateString(state), symbol),
-                            sortedStateString(transitions)
-                    );
-
-                    if (!qDone.contains(transitions) && !qList.contains(transitions)) {
-                        qList.add(transitions);
-                    }
-                }
-            }
-        }
+        Set<String> takenNames = dfa1.getStates() != null ? dfa1.getStates() : Set.of();
+        CompactDFA first = CompactDFA.of(dfa1);
+        CompactDFA second = CompactDFA.of(dfa2).renamedApart(takenNames);
+        LetterClasses classes = LetterClasses.of(first, second);
+        return classes.expand(CompactDFA.product(classes.compress(first), classes.compress(second), operation)).toDFA();
+    }
 
-        Set<String> allStates = new HashSet<>();
-        for (Map.Entry<Map<String, String>, String> entry : dfaTransitions.entrySet()) {
-            allStates.add(entry.getKey().keySet().iterator().next());
-            allStates.add(entry.getValue());
+    /**
+     * Computes the product of a set of deterministic finite automata (DFAs).
+     * The resulting DFA accepts the intersection of the languages accepted by all DFAs in the set.
+     * The DFAs are merged along a balanced tree with minimization after every merge, see
+     * {@link CompactDFA#intersection(List)}, so the result is the minimal DFA of the intersection.
+     * The given set is not modified.
+     *
+     * @param dfas A set of DFAs to product.
+     * @return The product of all DFAs in the set as a new DFA.
+     * @throws IllegalArgumentException if the set of DFAs is empty.
+     */
+    public static DFA product(Set<DFA> dfas) {
+        if (dfas.isEmpty()) {
+            throw new IllegalArgumentException("The set of DFAs cannot be empty");
         }
 
-        Set<String> acceptingStates = new HashSet<>();
-        for (String state : allStates) {
-            boolean counter = true;
-            Set<String> qStateSet = evalState(state);
-            for (String qState : qStateSet) {
-                if (!dfa1.getAcceptStates().contains(qState) && !dfa2.getAcceptStates().contains(qState)) {
-                    counter = false;
-                    break;
-                }
-            }
-            if (counter) {
-                acceptingStates.add(state);
-            }
+        List<CompactDFA> compactDFAs = new ArrayList<>();
+        for (DFA dfa : dfas) {
+            compactDFAs.add(CompactDFA.of(dfa));
         }
-        return new DFA(allStates, dfa1.alphabet, sortedStateString(q0Closure), acceptingStates, dfaTransitions);
+        LetterClasses classes = LetterClasses.of(compactDFAs.toArray(new CompactDFA[0]));
+        compactDFAs.replaceAll(classes::compress);
+        return classes.expand(CompactDFA.intersection(compactDFAs)).toDFA();
     }
 
     /**
-     * Sorts a set of state names and returns them as a comma-separated string.
+     * Computes the "roof" DFA, which is the product of all DFAs in the alpha(A) set.
+     * This DFA represents the product of all DFAs that accept the language of the original DFA.
+     * Candidates with fewer states than this DFA are streamed one by one. Only the canonical initially-connected
+     * DFAs of {@link CanonicalCandidateSpliterator} are generated, since every language accepted by a candidate
+     * is accepted by one of them with at most as many states. Every candidate whose language contains
+     * the language of this DFA is folded into the running, minimized product immediately, unless its language
+     * already contains the product. Memory therefore does not grow with the number of candidates.
      *
-     * @param stateSet the set of states to sort
-     * @return a sorted comma-separated string of state names
+     * @return The roof DFA representing the product of all smaller DFAs, or an empty DFA if there is none.
      */
-    private static String sortedStateString(Set<String> stateSet) {
-        List<String> sortedState = new ArrayList<>(stateSet);
-        sortedState.sort(Comparator.naturalOrder());
-        return String.join(",", sortedState);
+    public DFA getRoofDFA() {
+        return getRoofDFA(FactorSearch.BRUTE_FORCE);
     }
 
     /**
-     * Evaluates a state string by splitting it into individual state names.
+     * Computes the "roof" DFA with the given search engine for the candidates.
      *
-     * @param stateString the comma-separated state string
-     * @return the set of individual states
+     * @param search The engine searching the candidates.
+     * @return The roof DFA representing the product of all smaller DFAs, or an empty DFA if there is none.
      */
-    private static Set<String> evalState(String stateString) {
-        return new HashSet<>(Arrays.asList(stateString.split(",")));
+    public DFA getRoofDFA(FactorSearch search) {
+        return getRoofDFA(search, MinimalDFALibrary.getDefault());
     }
 
     /**
-     * Computes the product of a set of deterministic finite automata (DFAs).
-     * The resulting DFA accepts the intersection of the languages accepted by all DFAs in the set.
+     * Computes the "roof" DFA from the minimal DFAs stored in the given library.
      *
-     * @param dfas A set of DFAs to product.
-     * @return The product of all DFAs in the set as a new DFA.
-     * @throws IllegalArgumentException if the set of DFAs is empty.
+     * @param library The library of minimal DFAs to scan.
+     * @return The roof DFA representing the product of all smaller DFAs, or an empty DFA if there is none.
      */
-    public static DFA product(Set<DFA> dfas) {
-        Iterator<DFA> iterator = dfas.iterator();
+    public DFA getRoofDFA(MinimalDFALibrary library) {
+        return getRoofDFA(FactorSearch.LIBRARY, library);
+    }
 
-        if (!iterator.hasNext()) {
-            throw new IllegalArgumentException("The set of DFAs cannot be empty");
-        }
+    private DFA getRoofDFA(FactorSearch search, MinimalDFALibrary library) {
+        CompactDFA roof = foldRoof(CompactDFA.of(this), false, search, library);
+
+        return roof == null ? new DFA() : roof.toDFA();
+    }
+
+    /**
+     * Folds the candidates accepting the language of the given DFA into the running, minimized roof.
+     * In the early exit mode the search stops as soon as the roof accepts no word outside the language
+     * of the DFA, since the remaining candidates cannot change the roof any more.
+     *
+     * @param compact The compact form of this DFA.
+     * @param stopAtLanguage Whether to stop once the roof equals the language of the DFA.
+     * @param search The engine searching the candidates.
+     * @param library The library scanned by {@link FactorSearch#LIBRARY}.
+     * @return The minimal roof, or null if no candidate accepts the language of the DFA.
+     */
+    private CompactDFA foldRoof(CompactDFA compact, boolean stopAtLanguage, FactorSearch search,
+                                MinimalDFALibrary library) {
+        RoofAccumulator accumulator = new RoofAccumulator(compact, stopAtLanguage);
 
-        DFA result = iterator.next();
-        iterator.remove();
+        for (int numStates = 1; numStates < states.size(); numStates++) {
+            if (search == FactorSearch.BACKTRACKING) {
+                if (BacktrackingCandidateSearch.search(compact, numStates, accumulator::add)) {
+                    return accumulator.roof();
+                }
+                continue;
+            }
+            if (search == FactorSearch.PARALLEL) {
+                if (CanonicalCandidateSpliterator.stream(compact, numStates, true).anyMatch(accumulator::add)) {
+                    return accumulator.roof();
+                }
+                continue;
+            }
+            if (foldIncluded(compact, candidates(compact, numStates, search, library), accumulator)) {
+                return accumulator.roof();
+            }
+        }
 
-        while (iterator.hasNext()) {
-            DFA nextDFA = iterator.next();
-            result = product(result, nextDFA);
-            iterator.remove();
+        // The backtracking search leaves out candidates accepting every word, such a candidate has one state
+        if (search == FactorSearch.BACKTRACKING && accumulator.roof() == null && states.size() > 1) {
+            accumulator.add(universalDFA(compact));
         }
+        return accumulator.roof();
+    }
 
-        return result;
+    /**
+     * Returns the candidates of the enumerating engines, the canonical candidates or the minimal DFAs of the library.
+     *
+     * @param compact The DFA whose alphabet is used.
+     * @param numStates The number of states of the candidates.
+     * @param search The engine, {@link FactorSearch#LIBRARY} or an engine enumerating canonical candidates.
+     * @param library The library scanned by {@link FactorSearch#LIBRARY}.
+     * @return The iterator over the candidates.
+     */
+    private static Iterator<CompactDFA> candidates(CompactDFA compact, int numStates, FactorSearch search,
+                                                   MinimalDFALibrary library) {
+        return search == FactorSearch.LIBRARY
+                ? library.table(compact.getSymbolCount(), numStates).stream(compact).iterator()
+                : Spliterators.iterator(CanonicalCandidateSpliterator.of(compact, numStates));
     }
 
     /**
-     * Computes the "roof" DFA, which is the product of all DFAs in the alpha(A) set.
-     * This DFA represents the product of all DFAs that accept the language of the original DFA.
+     * Tests the candidates against the DFA in blocks of {@link InclusionKernel#LANES} and folds the candidates
+     * whose language contains the language of the DFA into the roof.
      *
-     * @return The roof DFA representing the product of all smaller DFAs.
-     * @throws IllegalArgumentException if the alphaDFA set is empty.
+     * @param compact The compact form of this DFA.
+     * @param candidates The candidates over the alphabet of the DFA.
+     * @param accumulator The roof the candidates are folded into.
+     * @return true if the search may stop, false otherwise.
      */
-    public DFA getRoofDFA() {
-        Set<DFA> alphaDFA = getAlphaDFA();
-        if (alphaDFA.isEmpty()) {
-            return new DFA();
+    private static boolean foldIncluded(CompactDFA compact, Iterator<CompactDFA> candidates, RoofAccumulator accumulator) {
+        CompactDFA[] block = new CompactDFA[InclusionKernel.LANES];
+        while (candidates.hasNext()) {
+            int count = 0;
+            while (count < block.length && candidates.hasNext()) {
+                block[count++] = candidates.next();
+            }
+            for (long lanes = compact.isSubsetOfEach(block, count); lanes != 0; lanes &= lanes - 1) {
+                if (accumulator.addIncluded(block[Long.numberOfTrailingZeros(lanes)])) {
+                    return true;
+                }
+            }
         }
+        return false;
+    }
 
-        return DFA.product(alphaDFA);
+    /**
+     * Creates the one-state DFA accepting every word over the alphabet of the given DFA.
+     *
+     * @param compact The compact DFA whose alphabet is used.
+     * @return The one-state DFA with the only state accepting.
+     */
+    private static CompactDFA universalDFA(CompactDFA compact) {
+        return CanonicalCandidateSpliterator.stream(compact, 1).findFirst().orElseThrow();
     }
 
     /**
@@ -748,7 +758,7 @@ public class DFA {
             }
 
             for (String symbol : alphabet) {
-                String nextState = transitionFunction.get(Map.of(currentState, symbol));
+                String nextState = step(currentState, symbol);
                 if (nextState != null && !visited.contains(nextState)) {
                     visited.add(nextState);
                     queue.add(nextState);
@@ -759,163 +769,370 @@ public class DFA {
         return false;
     }
 
+    /**
+     * Checks whether the language of this DFA is a subset of the language of the other DFA.
+     * Both DFAs are interned into compact form and the reachable pairs of states are explored lazily,
+     * stopping at the first pair accepted by this DFA but not by the other one. Neither DFA is modified.
+     *
+     * @param other The DFA whose language is tested to contain the language of this DFA.
+     * @return true if every word accepted by this DFA is accepted by the other DFA, false otherwise.
+     * @throws IllegalArgumentException if the DFAs do not have the same alphabet.
+     */
+    public boolean isSubsetOf(DFA other) {
+        if (!Objects.equals(alphabet, other.getAlphabet())) {
+            throw new IllegalArgumentException("DFAs must have the same alphabet");
+        }
+        return CompactDFA.of(this).isSubsetOf(CompactDFA.of(other));
+    }
+
     /**
      * Checks whether the DFA is a prime DFA.
-     * Implements the algorithm using the roof of DFA for general DFAs.
+     * Implements the algorithm using the roof of DFA for general DFAs: the language of the roof always
+     * contains the language of the DFA, and the DFA is composite exactly when the roof accepts no other word.
+     * The roof is built incrementally and the search stops as soon as it equals the language of the DFA,
+     * so composite DFAs are recognized without enumerating the remaining candidates.
      *
      * @return true if the DFA is prime, false otherwise.
      */
     public boolean isPrimeDFA() {
-        DFA roof = getRoofDFA();
-        if (roof.getStates() == null && roof.getTransitionFunction() == null) {
-            return true;
-        }
-        roof.flipAcceptStates();
-        DFA finalDfa = product(this, roof);
-
-        return !finalDfa.isAcceptStateReachable();
+        return isPrimeDFA(FactorSearch.BRUTE_FORCE);
     }
 
-//--------------------------------------------isComposite - Memory------------------------------------------------------
-
     /**
-     * Determines whether the permutation automaton is composite.
-     * This algorithm generates the rejecting states of the orbit-DFA and records the covered rejecting states
-     * of the original automaton. It also stores all possible initial states of processed orbit-DFAs
-     * to prevent redundant regeneration of the same orbit.
+     * Checks whether the DFA is a prime DFA with the given search engine for the candidates.
+     * The candidates are enumerated over one letter per class of letters with the same transitions,
+     * see {@link LetterClasses}, which does not change primality.
      *
-     * @return True if the automaton is composite; false otherwise.
+     * @param search The engine searching the candidates.
+     * @return true if the DFA is prime, false otherwise.
      */
-    public boolean isCompositeMemory() {
-        List<String> rejectingStates = this.getRejectingStates();
-
-        if (rejectingStates.size() <= 1) {
-            return false;
-        }
-
-        Set<String> covered = new HashSet<>();
-        Set<Set<String>> processedOrbits = new HashSet<>();
-        for (int size = 2; size <= rejectingStates.size(); size++) {
-            if (generateCombinationMemory(rejectingStates, size, 0, new HashSet<>(), processedOrbits, covered)) {
-                return true;
-            }
-        }
-
-        return false;
+    public boolean isPrimeDFA(FactorSearch search) {
+        return isPrimeDFA(search, MinimalDFALibrary.getDefault());
     }
 
     /**
-     * Recursively generates the rejecting states of orbit-DFAs by exploring subsets of states.
-     * The method iterates through possible subsets, considering the target size and current state configuration.
-     * It ensures that all rejecting states are covered, and avoids redundant calculations
-     * by storing previously processed orbits.
-     *
-     * @param rejectingStates The set of rejecting states.
-     * @param size The target size of the subset to be generated.
-     * @param index The current index in the subset of states.
-     * @param current The current subset of states being considered for the orbit-DFA.
-     * @param processedOrbits  A set of initial states from previously processed orbits to avoid redundant generation.
-     * @param covered A set of states that are covered during the generation process.
+     * Checks whether the DFA is a prime DFA with the minimal DFAs stored in the given library as candidates.
      *
-     * @return True if all rejecting states are covered; false otherwise.
+     * @param library The library of minimal DFAs to scan.
+     * @return true if the DFA is prime, false otherwise.
      */
-    private boolean generateCombinationMemory(List<String> rejectingStates, int size, int index, Set<String> current,
-                                              Set<Set<String>> processedOrbits, Set<String> covered) {
-        if (current.size() == size) {
-            if (!processedOrbits.contains(current)) {
-                covered.addAll(coverMemory(new HashSet<>(current), processedOrbits));
-                return covered.size() == rejectingStates.size();
-            }
-            return false;
-        }
+    public boolean isPrimeDFA(MinimalDFALibrary library) {
+        return isPrimeDFA(FactorSearch.LIBRARY, library);
+    }
 
-        for (int i = index; i < rejectingStates.size(); i++) {
-            current.add(rejectingStates.get(i));
-            if (generateCombinationMemory(rejectingStates, size, i + 1, current, processedOrbits, covered)) {
-                return true;
-            }
-            current.remove(rejectingStates.get(i));
-        }
-        return false;
+    private boolean isPrimeDFA(FactorSearch search, MinimalDFALibrary library) {
+        CompactDFA compact = compressedCompact();
+        CompactDFA roof = foldRoof(compact, true, search, library);
+
+        return roof == null || !roof.isSubsetOf(compact);
     }
 
     /**
-     * Computes the set of states covered by the orbit-DFA defined by the rejecting state
-     * and stores all states of the orbit-DFA.
+     * Checks for each DFA of the batch whether it is a prime DFA, enumerating every candidate only once.
      *
-     * @param U The set containing the generated rejecting state used to construct the orbit-DFA.
-     * @param processedOrbits A set of already processed orbits to prevent redundant generation.
-     * @return The set of covered rejecting states; otherwise, returns an empty set.
+     * @param dfas The DFAs to check.
+     * @return The primality of every DFA, in the order of the list.
      */
-    public Set<String> coverMemory(Set<String> U, Set<Set<String>> processedOrbits) {
-        Set<Set<String>> CU = new HashSet<>();
-        CU.add(U);
+    public static List<Boolean> arePrimeDFAs(List<DFA> dfas) {
+        return arePrimeDFAs(dfas, FactorSearch.BRUTE_FORCE);
+    }
 
-        if (expandOrbitsMemory(CU, processedOrbits) && CU.stream().anyMatch(subset -> subset
-                .contains(this.getInitialState()))) {
-            return CU.stream()
-                    .filter(subset -> subset.stream().noneMatch(this.acceptStates::contains))
-                    .flatMap(Set::stream)
-                    .collect(Collectors.toSet());
+    /**
+     * Checks for each DFA of the batch whether it is a prime DFA. The DFAs are grouped by the size of their
+     * compressed alphabet, see {@link LetterClasses}, and renamed onto a common alphabet, which does not change
+     * primality. For every group and number of states, the candidates are enumerated once and every block of
+     * candidates is encoded into the lanes of {@link InclusionKernel} once and tested against each DFA that still
+     * needs candidates of this size. Every DFA keeps its own incremental roof and stops taking candidates as soon
+     * as its roof equals its language, like {@link #isPrimeDFA(FactorSearch)}.
+     *
+     * @param dfas The DFAs to check.
+     * @param search The engine enumerating the candidates, {@link FactorSearch#BRUTE_FORCE} or {@link FactorSearch#LIBRARY}.
+     * @return The primality of every DFA, in the order of the list.
+     * @throws IllegalArgumentException if the engine does not enumerate candidates independently of the DFA.
+     */
+    public static List<Boolean> arePrimeDFAs(List<DFA> dfas, FactorSearch search) {
+        if (search != FactorSearch.BRUTE_FORCE && search != FactorSearch.LIBRARY) {
+            throw new IllegalArgumentException("Candidates of " + search + " cannot be shared by a batch");
         }
-        return Set.of();
+        return arePrimeDFAs(dfas, search, MinimalDFALibrary.getDefault());
     }
 
     /**
-     * Determines whether the orbit generated from the given state covers any rejecting states
-     * of the original automaton.
-     * The method constructs the complete orbit-DFA by exhaustively applying all transitions from the initial state.
-     * If the generated orbit is smaller than the original automaton, it may cover some rejecting states.
-     * Conversely, if the orbit is larger, it does not cover any states.
-     *
-     * @param CU A set containing the rejecting state used to generate the orbit-DFA.
-     * @param processedOrbits A set of previously processed orbits to prevent redundant computations.
+     * Checks for each DFA of the batch whether it is a prime DFA with the minimal DFAs stored in the given
+     * library as candidates, see {@link #arePrimeDFAs(List, FactorSearch)}.
      *
-     * @return True if the generated orbit-DFA covers any states of the original automaton; false otherwise.
+     * @param dfas The DFAs to check.
+     * @param library The library of minimal DFAs to scan.
+     * @return The primality of every DFA, in the order of the list.
      */
-    private boolean expandOrbitsMemory(Set<Set<String>> CU, Set<Set<String>> processedOrbits) {
-        Set<Set<String>> addedSets = new HashSet<>(CU);
-
-        while (true) {
-            addedSets = addedSets.stream()
-                    .flatMap(S -> this.getAlphabet().stream()
-                            .map(sigma -> S.stream()
-                                    .map(state -> this.getTransitionFunction().getOrDefault(Map.of(state, sigma),
-                                            null))
-                                    .filter(Objects::nonNull)
-                                    .collect(Collectors.toSet())))
-                    .filter(set -> !set.isEmpty())
-                    .collect(Collectors.toSet());
+    public static List<Boolean> arePrimeDFAs(List<DFA> dfas, MinimalDFALibrary library) {
+        return arePrimeDFAs(dfas, FactorSearch.LIBRARY, library);
+    }
 
-            processedOrbits.addAll(addedSets);
-            if (!CU.addAll(addedSets)) break;
+    private static List<Boolean> arePrimeDFAs(List<DFA> dfas, FactorSearch search, MinimalDFALibrary library) {
+        Map<Integer, List<Integer>> groups = new TreeMap<>();
+        CompactDFA[] compacts = new CompactDFA[dfas.size()];
+        for (int i = 0; i < compacts.length; i++) {
+            compacts[i] = dfas.get(i).compressedCompact();
+            groups.computeIfAbsent(compacts[i].getSymbolCount(), symbolCount -> new ArrayList<>()).add(i);
+        }
+
+        Boolean[] primes = new Boolean[compacts.length];
+        for (List<Integer> group : groups.values()) {
+            String[] symbols = new String[compacts[group.get(0)].getSymbolCount()];
+            for (int symbol = 0; symbol < symbols.length; symbol++) {
+                symbols[symbol] = String.valueOf(symbol);
+            }
+            CompactDFA[] languages = new CompactDFA[group.size()];
+            RoofAccumulator[] accumulators = new RoofAccumulator[group.size()];
+            int maxStates = 0;
+            for (int member = 0; member < languages.length; member++) {
+                languages[member] = compacts[group.get(member)].withSymbols(symbols);
+                accumulators[member] = new RoofAccumulator(languages[member], true);
+                maxStates = Math.max(maxStates, dfas.get(group.get(member)).getStates().size());
+            }
+
+            CompactDFA[] block = new CompactDFA[InclusionKernel.LANES];
+            for (int numStates = 1; numStates < maxStates; numStates++) {
+                List<Integer> active = new ArrayList<>();
+                for (int member = 0; member < languages.length; member++) {
+                    if (!accumulators[member].isCancelled() && numStates < dfas.get(group.get(member)).getStates().size()) {
+                        active.add(member);
+                    }
+                }
+                Iterator<CompactDFA> candidates = candidates(languages[0], numStates, search, library);
+                while (!active.isEmpty() && candidates.hasNext()) {
+                    int count = 0;
+                    while (count < block.length && candidates.hasNext()) {
+                        block[count++] = candidates.next();
+                    }
+                    InclusionKernel.CandidateBlock lanesOfBlock = new InclusionKernel.CandidateBlock(block, count);
+                    for (Iterator<Integer> members = active.iterator(); members.hasNext(); ) {
+                        int member = members.next();
+                        for (long lanes = InclusionKernel.includedIn(languages[member], lanesOfBlock); lanes != 0; lanes &= lanes - 1) {
+                            if (accumulators[member].addIncluded(block[Long.numberOfTrailingZeros(lanes)])) {
+                                members.remove();
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
 
-            if (CU.size() >= this.getStates().size()) {
-                return false;
+            for (int member = 0; member < languages.length; member++) {
+                CompactDFA roof = accumulators[member].roof();
+                primes[group.get(member)] = roof == null || !roof.isSubsetOf(languages[member]);
             }
         }
-        return true;
+        return Arrays.asList(primes);
     }
 
-//--------------------------------------------isComposite - Time--------------------------------------------------------
+//--------------------------------------------isComposite - helpers-----------------------------------------------------
 
     /**
-     * Determines whether the permutation automaton is composite.
+     * Interns the DFA and merges the letters inducing the same transitions into one letter, see
+     * {@link LetterClasses}. The states keep their names and numbers. Primality, compositeness,
+     * reachability and the permutation and commutativity properties do not change, so these analyses
+     * run on the compressed alphabet.
+     *
+     * @return The compact DFA over one letter per class of letters.
+     */
+    private CompactDFA compressedCompact() {
+        CompactDFA dfa = CompactDFA.of(this);
+        return LetterClasses.of(dfa).compress(dfa);
+    }
+
+    /**
+     * Retrieves the rejecting states of the compact DFA.
+     *
+     * @param dfa The compact DFA.
+     * @return An array of the numbers of rejecting states in increasing order.
+     */
+    private static int[] getRejectingStates(CompactDFA dfa) {
+        return IntStream.range(0, dfa.getStateCount())
+                .filter(state -> !dfa.isAccepting(state))
+                .toArray();
+    }
+
+    /**
+     * Toggles a state in a bitset of states.
+     *
+     * @param bits The bitset.
+     * @param state The number of the state.
+     */
+    private static void flip(long[] bits, int state) {
+        bits[state >>> 6] ^= 1L << state;
+    }
+
+    /**
+     * Adds all states of the second bitset to the first one.
+     *
+     * @param bits The bitset to extend.
+     * @param other The bitset of added states.
+     */
+    private static void or(long[] bits, long[] other) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] |= other[i];
+        }
+    }
+
+    /**
+     * Converts the processed orbits given by state names into a table of the orbit engine.
+     *
+     * @param engine The orbit engine.
+     * @param processedOrbits The processed orbits given by state names.
+     * @return The table of processed orbits.
+     */
+    private static OrbitEngine.SubsetTable toTable(OrbitEngine engine, Set<Set<String>> processedOrbits) {
+        OrbitEngine.SubsetTable table = engine.newTable();
+        processedOrbits.forEach(orbit -> table.add(engine.toBits(orbit), 0));
+        return table;
+    }
+
+    /**
+     * Adds all orbits stored in the table to the processed orbits given by state names.
+     *
+     * @param engine The orbit engine.
+     * @param table The table of processed orbits.
+     * @param processedOrbits The processed orbits given by state names.
+     */
+    private static void addAll(OrbitEngine engine, OrbitEngine.SubsetTable table, Set<Set<String>> processedOrbits) {
+        for (int i = 0; i < table.size(); i++) {
+            processedOrbits.add(engine.toStateNames(table.data(), i * engine.words()));
+        }
+    }
+
+//--------------------------------------------isComposite - Memory------------------------------------------------------
+
+    /**
+     * Determines whether the permutation automaton is composite.
+     * This algorithm generates the rejecting states of the orbit-DFA and records the covered rejecting states
+     * of the original automaton. It also stores all possible initial states of processed orbit-DFAs
+     * to prevent redundant regeneration of the same orbit.
+     *
+     * @return True if the automaton is composite; false otherwise.
+     */
+    public boolean isCompositeMemory() {
+        CompactDFA dfa = compressedCompact();
+        int[] rejectingStates = getRejectingStates(dfa);
+
+        if (rejectingStates.length <= 1) {
+            return false;
+        }
+
+        OrbitEngine engine = new OrbitEngine(dfa);
+        long[] covered = new long[engine.words()];
+        OrbitEngine.SubsetTable processedOrbits = engine.newTable();
+        for (int size = 2; size <= rejectingStates.length; size++) {
+            if (generateCombinationMemory(engine, dfa, rejectingStates, size, 0, 0, new long[engine.words()],
+                    processedOrbits, covered)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Recursively generates the rejecting states of orbit-DFAs by exploring subsets of states.
+     * The method iterates through possible subsets, considering the target size and current state configuration.
+     * It ensures that all rejecting states are covered, and avoids redundant calculations
+     * by storing previously processed orbits.
+     *
+     * @param engine The orbit engine of the automaton.
+     * @param dfa The compact representation of the automaton.
+     * @param rejectingStates The set of rejecting states.
+     * @param size The target size of the subset to be generated.
+     * @param index The current index in the subset of states.
+     * @param count The number of states in the current subset.
+     * @param current The current subset of states being considered for the orbit-DFA.
+     * @param processedOrbits  A set of initial states from previously processed orbits to avoid redundant generation.
+     * @param covered A set of states that are covered during the generation process.
+     *
+     * @return True if all rejecting states are covered; false otherwise.
+     */
+    private boolean generateCombinationMemory(OrbitEngine engine, CompactDFA dfa, int[] rejectingStates, int size,
+                                              int index, int count, long[] current,
+                                              OrbitEngine.SubsetTable processedOrbits, long[] covered) {
+        if (count == size) {
+            if (!processedOrbits.contains(current, 0)) {
+                or(covered, coverMemory(engine, dfa, current, processedOrbits));
+                return OrbitEngine.cardinality(covered) == rejectingStates.length;
+            }
+            return false;
+        }
+
+        for (int i = index; i < rejectingStates.length; i++) {
+            flip(current, rejectingStates[i]);
+            if (generateCombinationMemory(engine, dfa, rejectingStates, size, i + 1, count + 1, current,
+                    processedOrbits, covered)) {
+                return true;
+            }
+            flip(current, rejectingStates[i]);
+        }
+        return false;
+    }
+
+    /**
+     * Computes the set of states covered by the orbit-DFA defined by the rejecting state
+     * and stores all states of the orbit-DFA.
+     *
+     * @param U The set containing the generated rejecting state used to construct the orbit-DFA.
+     * @param processedOrbits A set of already processed orbits to prevent redundant generation.
+     * @return The set of covered rejecting states; otherwise, returns an empty set.
+     */
+    public Set<String> coverMemory(Set<String> U, Set<Set<String>> processedOrbits) {
+        CompactDFA dfa = compressedCompact();
+        OrbitEngine engine = new OrbitEngine(dfa);
+        OrbitEngine.SubsetTable processed = toTable(engine, processedOrbits);
+
+        long[] covered = coverMemory(engine, dfa, engine.toBits(U), processed);
+
+        addAll(engine, processed, processedOrbits);
+        return engine.toStateNames(covered, 0);
+    }
+
+    /**
+     * Computes the set of states covered by the orbit-DFA defined by the rejecting state
+     * and stores all states of the orbit-DFA.
+     * Every image found while expanding the orbit is recorded as processed.
+     *
+     * @param engine The orbit engine of the automaton.
+     * @param dfa The compact representation of the automaton.
+     * @param U The set containing the generated rejecting state used to construct the orbit-DFA.
+     * @param processedOrbits A set of already processed orbits to prevent redundant generation.
+     * @return The set of covered rejecting states; otherwise, returns an empty set.
+     */
+    private long[] coverMemory(OrbitEngine engine, CompactDFA dfa, long[] U,
+                               OrbitEngine.SubsetTable processedOrbits) {
+        if (engine.expand(U, processedOrbits::add) && engine.orbitContains(dfa.getInitialState())) {
+            return engine.coveredRejectingStates();
+        }
+        return new long[engine.words()];
+    }
+
+//--------------------------------------------isComposite - Time--------------------------------------------------------
+
+    /**
+     * Determines whether the permutation automaton is composite.
      * This algorithm generates the rejecting states of the orbit-DFA and records the covered rejecting states
      * of the original automaton.
      *
      * @return True if the automaton is composite; false otherwise.
      */
     public boolean isCompositeTime() {
-        List<String> rejectingStates = this.getRejectingStates();
+        CompactDFA dfa = compressedCompact();
+        int[] rejectingStates = getRejectingStates(dfa);
 
-        if (rejectingStates.size() <= 1) {
+        if (rejectingStates.length <= 1) {
             return false;
         }
 
-        Set<String> covered = new HashSet<>();
-        for (int size = 2; size <= rejectingStates.size(); size++) {
-            if (generateCombinationTime(rejectingStates, size, 0, new HashSet<>(), covered)) {
+        OrbitEngine engine = new OrbitEngine(dfa);
+        long[] covered = new long[engine.words()];
+        for (int size = 2; size <= rejectingStates.length; size++) {
+            if (generateCombinationTime(engine, dfa, rejectingStates, size, 0, 0, new long[engine.words()],
+                    covered)) {
                 return true;
             }
         }
@@ -928,27 +1145,30 @@ public class DFA {
      * The method iterates through possible subsets, considering the target size and current state configuration.
      * It ensures that all rejecting states of original automaton are covered.
      *
+     * @param engine The orbit engine of the automaton.
+     * @param dfa The compact representation of the automaton.
+     * @param rejectingStates The set of rejecting states.
      * @param size The target size of the subset to be generated.
      * @param index The current index in the subset of states.
+     * @param count The number of states in the current subset.
      * @param current The current subset of states being considered for the orbit-DFA.
      * @param covered A set of states that are covered during the generation process.
-     * @param rejectingStates The set of rejecting states.
      *
      * @return True if all rejecting states are covered; false otherwise.
      */
-    private boolean generateCombinationTime(List<String> rejectingStates, int size, int index, Set<String> current,
-                                            Set<String> covered) {
-        if (current.size() == size) {
-            covered.addAll(coverTime(new HashSet<>(current)));
-            return covered.size() == rejectingStates.size();
+    private boolean generateCombinationTime(OrbitEngine engine, CompactDFA dfa, int[] rejectingStates, int size,
+                                            int index, int count, long[] current, long[] covered) {
+        if (count == size) {
+            or(covered, coverTime(engine, dfa, current));
+            return OrbitEngine.cardinality(covered) == rejectingStates.length;
         }
 
-        for (int i = index; i < rejectingStates.size(); i++) {
-            current.add(rejectingStates.get(i));
-            if (generateCombinationTime(rejectingStates, size, i + 1, current, covered)) {
+        for (int i = index; i < rejectingStates.length; i++) {
+            flip(current, rejectingStates[i]);
+            if (generateCombinationTime(engine, dfa, rejectingStates, size, i + 1, count + 1, current, covered)) {
                 return true;
             }
-            current.remove(rejectingStates.get(i));
+            flip(current, rejectingStates[i]);
         }
         return false;
     }
@@ -960,50 +1180,24 @@ public class DFA {
      * @return The set of covered states.
      */
     public Set<String> coverTime(Set<String> U) {
-        Set<Set<String>> CU = new HashSet<>();
-        CU.add(U);
-
-        if (expandOrbitsTime(CU) && CU.stream().anyMatch(subset -> subset.contains(this.getInitialState()))) {
-            return CU.stream()
-                    .filter(subset -> subset.stream().noneMatch(this.acceptStates::contains))
-                    .flatMap(Set::stream)
-                    .collect(Collectors.toSet());
-        }
-        return Set.of();
+        CompactDFA dfa = compressedCompact();
+        OrbitEngine engine = new OrbitEngine(dfa);
+        return engine.toStateNames(coverTime(engine, dfa, engine.toBits(U)), 0);
     }
 
     /**
-     * Determines whether the orbit generated from the given state covers any rejecting states
-     * of the original automaton.
-     * The method constructs the complete orbit-DFA by exhaustively applying all transitions from the initial state.
-     * If the generated orbit is smaller than the original automaton, it may cover some rejecting states.
-     * Conversely, if the orbit is larger, it does not cover any states.
-     *
-     * @param CU A set containing the state used to generate the orbit-DFA.
+     * Computes the set of covered rejecting states.
      *
-     * @return True if the generated orbit-DFA covers any states of the original automaton; false otherwise.
+     * @param engine The orbit engine of the automaton.
+     * @param dfa The compact representation of the automaton.
+     * @param U The set containing state used to generate the orbit-DFA.
+     * @return The set of covered states.
      */
-    private boolean expandOrbitsTime(Set<Set<String>> CU) {
-        Set<Set<String>> addedSets = new HashSet<>(CU);
-
-        while (true) {
-            addedSets = addedSets.stream()
-                    .flatMap(S -> this.getAlphabet().stream()
-                            .map(sigma -> S.stream()
-                                    .map(state -> this.getTransitionFunction().getOrDefault(Map.of(state, sigma),
-                                            null))
-                                    .filter(Objects::nonNull)
-                                    .collect(Collectors.toSet())))
-                    .filter(set -> !set.isEmpty())
-                    .collect(Collectors.toSet());
-
-            if (!CU.addAll(addedSets)) break;
-
-            if (CU.size() >= this.getStates().size()) {
-                return false;
-            }
+    private long[] coverTime(OrbitEngine engine, CompactDFA dfa, long[] U) {
+        if (engine.expand(U, null) && engine.orbitContains(dfa.getInitialState())) {
+            return engine.coveredRejectingStates();
         }
-        return true;
+        return new long[engine.words()];
     }
 
 //--------------------------------------------isComposite - Original----------------------------------------------------
@@ -1015,55 +1209,74 @@ public class DFA {
      * @return True if the automaton is composite; false otherwise.
      */
     public boolean isComposite() {
-        List<String> rejectingStates = this.getRejectingStates();
+        CompactDFA dfa = compressedCompact();
+        int[] rejectingStates = getRejectingStates(dfa);
 
-        if (rejectingStates.size() <= 1) {
+        if (rejectingStates.length <= 1) {
             return false;
         }
 
-        for (String p : rejectingStates) {
-            int flag = 0;
-            List<String> filteredStates = new ArrayList<>(rejectingStates);
-            filteredStates.remove(p);
-            for (int size = 2; size <= rejectingStates.size(); size++) {
-                if (generateCombination(filteredStates, size, 0, new HashSet<>(Set.of(p))) == 1) {
-                    flag = 1;
-                    break;
-                }
-            }
-            if (flag == 0) {
+        OrbitEngine engine = new OrbitEngine(dfa);
+        for (int p : rejectingStates) {
+            if (!coveredByOrbit(engine, dfa, rejectingStates, p)) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Checks whether the rejecting state is covered by an orbit-DFA generated from a set of rejecting states
+     * containing it. The sets are explored in increasing size.
+     *
+     * @param engine The orbit engine of the automaton.
+     * @param dfa The compact representation of the automaton.
+     * @param rejectingStates The rejecting states.
+     * @param p The rejecting state to cover.
+     * @return True if the rejecting state is covered; false otherwise.
+     */
+    private boolean coveredByOrbit(OrbitEngine engine, CompactDFA dfa, int[] rejectingStates, int p) {
+        int[] filteredStates = Arrays.stream(rejectingStates).filter(state -> state != p).toArray();
+        for (int size = 2; size <= rejectingStates.length; size++) {
+            long[] current = new long[engine.words()];
+            flip(current, p);
+            if (generateCombination(engine, dfa, filteredStates, size, 0, 1, current) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Recursively generates the states of orbit-DFAs by exploring subsets of states.
      * The method iterates through possible subsets containing chosen rejecting state,
      * considering the target size and the current state configuration.
      * It ensures that the rejecting state is covered.
      *
+     * @param engine The orbit engine of the automaton.
+     * @param dfa The compact representation of the automaton.
+     * @param rejectingStates The list of rejecting states.
      * @param size The target size of the subset to be generated.
      * @param index The current index in the subset of states.
+     * @param count The number of states in the current subset.
      * @param current The current subset of states being considered for the orbit-DFA.
-     * @param rejectingStates The list of rejecting states.
      *
      * @return True if the rejecting state is covered; false otherwise.
      */
-    private int generateCombination(List<String> rejectingStates, int size, int index, Set<String> current) {
-        if (current.size() == size) {
-            if (cover(current)) {
+    private int generateCombination(OrbitEngine engine, CompactDFA dfa, int[] rejectingStates, int size, int index,
+                                    int count, long[] current) {
+        if (count == size) {
+            if (cover(engine, dfa, current)) {
                 return 1;
             }
             return 0;
         }
-        for (int i = index; i < rejectingStates.size(); i++) {
-            current.add(rejectingStates.get(i));
-            if (generateCombination(rejectingStates, size, i + 1, current) == 1) {
+        for (int i = index; i < rejectingStates.length; i++) {
+            flip(current, rejectingStates[i]);
+            if (generateCombination(engine, dfa, rejectingStates, size, i + 1, count + 1, current) == 1) {
                 return 1;
             }
-            current.remove(rejectingStates.get(i));
+            flip(current, rejectingStates[i]);
         }
         return 0;
     }
@@ -1075,44 +1288,21 @@ public class DFA {
      * @return True if the orbit-DFA generated from the subset covers the rejecting state; false otherwise.
      */
     public boolean cover(Set<String> U) {
-        Set<Set<String>> CU = new HashSet<>();
-        CU.add(U);
-
-        return expandOrbits(CU) && CU.stream().anyMatch(subset -> subset.contains(this.getInitialState()));
+        CompactDFA dfa = compressedCompact();
+        OrbitEngine engine = new OrbitEngine(dfa);
+        return cover(engine, dfa, engine.toBits(U));
     }
 
     /**
-     * Determines whether the orbit generated from the given state covers the rejecting state
-     * of the original automaton.
-     * The method constructs the complete orbit-DFA by exhaustively applying all transitions from the state.
-     * If the generated orbit is smaller than the original automaton, it covers the rejecting state.
-     * Conversely, if the orbit is larger, it does not cover the state.
-     *
-     * @param CU A set containing the state used to generate the orbit-DFA.
+     * Checks whether the orbit-DFA generated from the given subset of states covers the states.
      *
-     * @return True if the generated orbit-DFA covers the chosen state of the original automaton; false otherwise.
+     * @param engine The orbit engine of the automaton.
+     * @param dfa The compact representation of the automaton.
+     * @param U The set containing the state used to generate the orbit-DFA.
+     * @return True if the orbit-DFA generated from the subset covers the rejecting state; false otherwise.
      */
-    private boolean expandOrbits(Set<Set<String>> CU) {
-        Set<Set<String>> addedSets = new HashSet<>(CU);
-
-        while (true) {
-            addedSets = addedSets.stream()
-                    .flatMap(S -> this.getAlphabet().stream()
-                            .map(sigma -> S.stream()
-                                    .map(state -> this.getTransitionFunction().getOrDefault(Map.of(state, sigma),
-                                            null))
-                                    .filter(Objects::nonNull)
-                                    .collect(Collectors.toSet())))
-                    .filter(set -> !set.isEmpty())
-                    .collect(Collectors.toSet());
-
-            if (!CU.addAll(addedSets)) break;
-
-            if (CU.size() >= this.getStates().size()) {
-                return false;
-            }
-        }
-        return true;
+    private boolean cover(OrbitEngine engine, CompactDFA dfa, long[] U) {
+        return engine.expand(U, null) && engine.orbitContains(dfa.getInitialState());
     }
 
 //--------------------------------------------isComposite - Initial-----------------------------------------------------
@@ -1125,19 +1315,24 @@ public class DFA {
      * @return True if the automaton is composite; false otherwise.
      */
     public boolean isCompositeInitial() {
-        List<String> statesWithoutInitial = new ArrayList<>(this.states.stream().toList());
-        statesWithoutInitial.remove(this.initialState);
+        CompactDFA dfa = compressedCompact();
+        int[] statesWithoutInitial = IntStream.range(0, dfa.getStateCount())
+                .filter(state -> state != dfa.getInitialState())
+                .toArray();
 
-        int rejectingStatesSize = this.getRejectingStates().size();
+        int rejectingStatesSize = getRejectingStates(dfa).length;
 
         if (rejectingStatesSize <= 1) {
             return false;
         }
 
-        Set<String> covered = new HashSet<>();
+        OrbitEngine engine = new OrbitEngine(dfa);
+        long[] covered = new long[engine.words()];
         for (int size = 2; size <= rejectingStatesSize; size++) {
-            if (generateCombinationInitial(statesWithoutInitial, size, 0,
-                    new HashSet<>(Set.of(this.initialState)), covered, rejectingStatesSize)) {
+            long[] current = new long[engine.words()];
+            flip(current, dfa.getInitialState());
+            if (generateCombinationInitial(engine, statesWithoutInitial, size, 0, 1, current, covered,
+                    rejectingStatesSize)) {
                 return true;
             }
         }
@@ -1151,29 +1346,31 @@ public class DFA {
      * considering the target size and the current state configuration.
      * It ensures that all rejecting states are covered.
      *
+     * @param engine The orbit engine of the automaton.
      * @param statesWithoutInitial A list of states excluding the initial state.
      * @param size The target size of the subset to be generated.
      * @param index The current index in the subset of states.
+     * @param count The number of states in the current subset.
      * @param current The current subset of states being considered for the orbit-DFA.
      * @param covered A set of states that are covered during the generation process.
      * @param rejectingStatesSize The number of rejecting states.
      *
      * @return True if all rejecting states are covered; false otherwise.
      */
-    private boolean generateCombinationInitial(List<String> statesWithoutInitial, int size, int index,
-                                               Set<String> current, Set<String> covered, int rejectingStatesSize) {
-        if (current.size() == size) {
-            covered.addAll(coverInitial(new HashSet<>(current)));
-            return covered.size() == rejectingStatesSize;
+    private boolean generateCombinationInitial(OrbitEngine engine, int[] statesWithoutInitial, int size, int index,
+                                               int count, long[] current, long[] covered, int rejectingStatesSize) {
+        if (count == size) {
+            or(covered, coverInitial(engine, current));
+            return OrbitEngine.cardinality(covered) == rejectingStatesSize;
         }
 
-        for (int i = index; i < statesWithoutInitial.size(); i++) {
-            current.add(statesWithoutInitial.get(i));
-            if (generateCombinationInitial(statesWithoutInitial, size, i + 1, current, covered,
+        for (int i = index; i < statesWithoutInitial.length; i++) {
+            flip(current, statesWithoutInitial[i]);
+            if (generateCombinationInitial(engine, statesWithoutInitial, size, i + 1, count + 1, current, covered,
                     rejectingStatesSize)) {
                 return true;
             }
-            current.remove(statesWithoutInitial.get(i));
+            flip(current, statesWithoutInitial[i]);
         }
         return false;
     }
@@ -1185,50 +1382,22 @@ public class DFA {
      * @return The set of covered rejecting states; otherwise, returns an empty set.
      */
     public Set<String> coverInitial(Set<String> U) {
-        Set<Set<String>> CU = new HashSet<>();
-        CU.add(U);
-
-        if (expandOrbitsInitial(CU)) {
-            return CU.stream()
-                    .filter(subset -> subset.stream().noneMatch(this.acceptStates::contains))
-                    .flatMap(Set::stream)
-                    .collect(Collectors.toSet());
-        }
-        return Set.of();
+        OrbitEngine engine = new OrbitEngine(compressedCompact());
+        return engine.toStateNames(coverInitial(engine, engine.toBits(U)), 0);
     }
 
     /**
-     * Determines whether the orbit generated from the given initial state covers any rejecting states
-     * of the original automaton.
-     * The method constructs the complete orbit-DFA by exhaustively applying all transitions from the initial state.
-     * If the generated orbit is smaller than the original automaton, it may cover some rejecting states.
-     * Conversely, if the orbit is larger, it does not cover any states.
-     *
-     * @param CU A set containing the initial state used to generate the orbit-DFA.
+     * Computes the set of states covered by the orbit-DFA defined by its initial state.
      *
-     * @return True if the generated orbit-DFA covers any states of the original automaton; false otherwise.
+     * @param engine The orbit engine of the automaton.
+     * @param U The set containing the generated initial state used to construct the orbit-DFA.
+     * @return The set of covered rejecting states; otherwise, returns an empty set.
      */
-    private boolean expandOrbitsInitial(Set<Set<String>> CU) {
-        Set<Set<String>> addedSets = new HashSet<>(CU);
-
-        while (true) {
-            addedSets = addedSets.stream()
-                    .flatMap(S -> this.getAlphabet().stream()
-                            .map(sigma -> S.stream()
-                                    .map(state -> this.getTransitionFunction().getOrDefault(Map.of(state, sigma),
-                                            null))
-                                    .filter(Objects::nonNull)
-                                    .collect(Collectors.toSet())))
-                    .filter(set -> !set.isEmpty())
-                    .collect(Collectors.toSet());
-
-            if (!CU.addAll(addedSets)) break;
-
-            if (CU.size() >= this.getStates().size()) {
-                return false;
-            }
+    private long[] coverInitial(OrbitEngine engine, long[] U) {
+        if (engine.expand(U, null)) {
+            return engine.coveredRejectingStates();
         }
-        return true;
+        return new long[engine.words()];
     }
 
 //--------------------------------------------isComposite - InitialMemory-----------------------------------------------
@@ -1242,19 +1411,24 @@ public class DFA {
      * @return True if the automaton is composite; false otherwise.
      */
     public boolean isCompositeInitialMemory() {
-        List<String> statesWithoutInitial = new ArrayList<>(this.states.stream().toList());
-        statesWithoutInitial.remove(this.initialState);
+        CompactDFA dfa = compressedCompact();
+        int[] statesWithoutInitial = IntStream.range(0, dfa.getStateCount())
+                .filter(state -> state != dfa.getInitialState())
+                .toArray();
 
-        int rejectingStatesSize = this.getRejectingStates().size();
+        int rejectingStatesSize = getRejectingStates(dfa).length;
 
         if (rejectingStatesSize <= 1) {
             return false;
         }
 
-        Set<String> covered = new HashSet<>();
+        OrbitEngine engine = new OrbitEngine(dfa);
+        long[] covered = new long[engine.words()];
         for (int size = 2; size <= rejectingStatesSize; size++) {
-            if (generateCombinationInitialMemory(statesWithoutInitial, size, 0,
-                    new HashSet<>(Set.of(this.initialState)), new HashSet<>(), covered, rejectingStatesSize)) {
+            long[] current = new long[engine.words()];
+            flip(current, dfa.getInitialState());
+            if (generateCombinationInitialMemory(engine, dfa, statesWithoutInitial, size, 0, 1, current,
+                    engine.newTable(), covered, rejectingStatesSize)) {
                 return true;
             }
         }
@@ -1269,33 +1443,38 @@ public class DFA {
      * It ensures that all rejecting states are covered, and avoids redundant calculations
      * by storing previously processed orbits.
      *
+     * @param engine The orbit engine of the automaton.
+     * @param dfa The compact representation of the automaton.
      * @param statesWithoutInitial A list of states excluding the initial state.
      * @param size The target size of the subset to be generated.
      * @param index The current index in the subset of states.
+     * @param count The number of states in the current subset.
      * @param current The current subset of states being considered for the orbit-DFA.
      * @param processedOrbits  A set of initial states from previously processed orbits to avoid redundant generation.
      * @param covered A set of states that are covered during the generation process.
+     * @param rejectingStatesSize The number of rejecting states.
      *
      * @return True if all rejecting states are covered; false otherwise.
      */
-    private boolean generateCombinationInitialMemory(List<String> statesWithoutInitial, int size, int index,
-                                                     Set<String> current, Set<Set<String>> processedOrbits,
-                                                     Set<String> covered, int rejectingStatesSize) {
-        if (current.size() == size) {
-            if (!processedOrbits.contains(current)) {
-                covered.addAll(coverInitialMemory(new HashSet<>(current), processedOrbits));
-                return covered.size() == rejectingStatesSize;
+    private boolean generateCombinationInitialMemory(OrbitEngine engine, CompactDFA dfa, int[] statesWithoutInitial,
+                                                     int size, int index, int count, long[] current,
+                                                     OrbitEngine.SubsetTable processedOrbits, long[] covered,
+                                                     int rejectingStatesSize) {
+        if (count == size) {
+            if (!processedOrbits.contains(current, 0)) {
+                or(covered, coverInitialMemory(engine, dfa, current, processedOrbits));
+                return OrbitEngine.cardinality(covered) == rejectingStatesSize;
             }
             return false;
         }
 
-        for (int i = index; i < statesWithoutInitial.size(); i++) {
-            current.add(statesWithoutInitial.get(i));
-            if (generateCombinationInitialMemory(statesWithoutInitial, size, i + 1, current, processedOrbits,
-                    covered, rejectingStatesSize)) {
+        for (int i = index; i < statesWithoutInitial.length; i++) {
+            flip(current, statesWithoutInitial[i]);
+            if (generateCombinationInitialMemory(engine, dfa, statesWithoutInitial, size, i + 1, count + 1, current,
+                    processedOrbits, covered, rejectingStatesSize)) {
                 return true;
             }
-            current.remove(statesWithoutInitial.get(i));
+            flip(current, statesWithoutInitial[i]);
         }
         return false;
     }
@@ -1309,68 +1488,192 @@ public class DFA {
      * @return The set of covered rejecting states; otherwise, returns an empty set.
      */
     public Set<String> coverInitialMemory(Set<String> U, Set<Set<String>> processedOrbits) {
-        Set<Set<String>> CU = new HashSet<>();
-        CU.add(U);
+        CompactDFA dfa = compressedCompact();
+        OrbitEngine engine = new OrbitEngine(dfa);
+        OrbitEngine.SubsetTable processed = toTable(engine, processedOrbits);
 
-        if (expandOrbitsInitialMemory(CU, processedOrbits)) {
-            return CU.stream()
-                    .filter(subset -> subset.stream().noneMatch(this.acceptStates::contains))
-                    .flatMap(Set::stream)
-                    .collect(Collectors.toSet());
-        }
-        return Set.of();
+        long[] covered = coverInitialMemory(engine, dfa, engine.toBits(U), processed);
+
+        addAll(engine, processed, processedOrbits);
+        return engine.toStateNames(covered, 0);
     }
 
     /**
-     * Determines whether the orbit generated from the given initial state covers any rejecting states
-     * of the original automaton.
-     * The method constructs the complete orbit-DFA by exhaustively applying all transitions from the initial state.
-     * If the generated orbit is smaller than the original automaton, it may cover some rejecting states.
-     * Conversely, if the orbit is larger, it does not cover any states.
-     *
-     * @param CU A set containing the initial state used to generate the orbit-DFA.
-     * @param processedOrbits A set of previously processed orbits to prevent redundant computations.
-     *
-     * @return True if the generated orbit-DFA covers any states of the original automaton; false otherwise.
-     */
-    private boolean expandOrbitsInitialMemory(Set<Set<String>> CU, Set<Set<String>> processedOrbits) {
-        Set<Set<String>> addedSets = new HashSet<>(CU);
-
-        while (true) {
-            addedSets = addedSets.stream()
-                    .flatMap(S -> this.getAlphabet().stream()
-                            .map(sigma -> S.stream()
-                                    .map(state -> this.getTransitionFunction().getOrDefault(Map.of(state, sigma),
-                                            null))
-                                    .filter(Objects::nonNull)
-                                    .collect(Collectors.toSet())))
-                    .filter(set -> !set.isEmpty())
-                    .collect(Collectors.toSet());
-
-            processedOrbits.addAll(addedSets.stream().filter(state -> state.contains(this.initialState))
-                    .collect(Collectors.toSet()));
-            if (!CU.addAll(addedSets)) break;
-
-            if (CU.size() >= this.getStates().size()) {
+     * Computes the set of states covered by the orbit-DFA defined by its initial state
+     * and stores all possible initial states of the orbit-DFA.
+     * Every image containing the initial state found while expanding the orbit is recorded as processed.
+     *
+     * @param engine The orbit engine of the automaton.
+     * @param dfa The compact representation of the automaton.
+     * @param U The set containing the generated initial state used to construct the orbit-DFA.
+     * @param processedOrbits A set of already processed orbits to prevent redundant generation.
+     * @return The set of covered rejecting states; otherwise, returns an empty set.
+     */
+    private long[] coverInitialMemory(OrbitEngine engine, CompactDFA dfa, long[] U,
+                                      OrbitEngine.SubsetTable processedOrbits) {
+        int initialState = dfa.getInitialState();
+        OrbitEngine.ImageListener listener = (data, offset) -> {
+            if ((data[offset + (initialState >>> 6)] & (1L << initialState)) != 0) {
+                processedOrbits.add(data, offset);
+            }
+        };
+        if (engine.expand(U, listener)) {
+            return engine.coveredRejectingStates();
+        }
+        return new long[engine.words()];
+    }
+
+//--------------------------------------------isComposite - Blocks------------------------------------------------------
+
+    /**
+     * Determines whether the permutation automaton is composite using the block systems of its transition group.
+     * A nontrivial block B of the group containing only rejecting states generates an orbit-DFA whose states
+     * are the images of B, and since the images of a block partition the states, the orbit-DFA has fewer states
+     * than the original automaton and covers all states of B. A rejecting state is covered if it lies in such
+     * a block. The blocks containing a state p are the images of the blocks containing the initial state under
+     * a word leading from the initial state to p, and every block containing the initial state is a union of
+     * the minimal blocks containing the initial state and one other state. These minimal blocks are computed
+     * by the union-find closure of Atkinson in the {@link PermutationGroup} of the automaton, once per orbit of
+     * the stabilizer of the initial state, so finding the states covered by blocks takes polynomial time.
+     * For commutative automata every covering orbit-DFA contains a block of rejecting states, so the blocks
+     * decide the compositeness. Otherwise a state may be covered only by an orbit of a set that is not a block,
+     * and the states left uncovered by blocks are checked by the subset search of {@link #isComposite()}.
+     * If the automaton is not a permutation automaton or some state is not reachable from the initial state,
+     * the transition group is not transitive and the method falls back to {@link #isComposite()}.
+     *
+     * @return True if the automaton is composite; false otherwise.
+     */
+    public boolean isCompositeBlocks() {
+        CompactDFA dfa = compressedCompact();
+        int[] rejectingStates = getRejectingStates(dfa);
+
+        if (rejectingStates.length <= 1) {
+            return false;
+        }
+
+        int[][] words = dfa.isPermutation() ? wordPermutations(dfa) : null;
+        if (words == null) {
+            return isComposite();
+        }
+
+        List<int[]> blocks = minimalBlocks(PermutationGroup.of(dfa), dfa.getInitialState());
+        OrbitEngine engine = null;
+        for (int p : rejectingStates) {
+            if (coveredByBlock(dfa, blocks, words[p])) {
+                continue;
+            }
+            if (engine == null) {
+                engine = new OrbitEngine(dfa);
+            }
+            if (!coveredByOrbit(engine, dfa, rejectingStates, p)) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Computes for every state p the permutation of states induced by a word leading from the initial state to p.
+     * The words are given by a breadth-first search tree rooted in the initial state.
+     *
+     * @param dfa The compact representation of the permutation automaton.
+     * @return The permutation of every state, or null if some state is not reachable from the initial state.
+     */
+    private static int[][] wordPermutations(CompactDFA dfa) {
+        int n = dfa.getStateCount();
+        int[][] permutations = new int[n][];
+        permutations[dfa.getInitialState()] = IntStream.range(0, n).toArray();
+        Queue<Integer> queue = new ArrayDeque<>();
+        queue.add(dfa.getInitialState());
+        int found = 1;
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int symbol = 0; symbol < dfa.getSymbolCount(); symbol++) {
+                int nextState = dfa.step(state, symbol);
+                if (permutations[nextState] == null) {
+                    int[] permutation = new int[n];
+                    for (int i = 0; i < n; i++) {
+                        permutation[i] = dfa.step(permutations[state][i], symbol);
+                    }
+                    permutations[nextState] = permutation;
+                    queue.add(nextState);
+                    found++;
+                }
+            }
+        }
+        return found == n ? permutations : null;
+    }
+
+    /**
+     * Computes the distinct minimal blocks containing the initial state and one other state.
+     * The minimal block of the initial state and a state p is the same for all states in the orbit of p under
+     * the stabilizer of the initial state, so only one state per such orbit is merged with the initial state.
+     *
+     * @param group The transition group of the permutation automaton.
+     * @param initialState The initial state.
+     * @return The members of the distinct minimal blocks.
+     */
+    private static List<int[]> minimalBlocks(PermutationGroup group, int initialState) {
+        int[] suborbits = group.stabilizer(initialState).orbits();
+        Set<BitSet> seen = new HashSet<>();
+        List<int[]> blocks = new ArrayList<>();
+
+        for (int state = 0; state < group.getDegree(); state++) {
+            if (state == initialState || suborbits[state] != state) {
+                continue;
+            }
+            int[] classes = group.blockSystem(initialState, state);
+            BitSet block = new BitSet();
+            for (int s = 0; s < classes.length; s++) {
+                if (classes[s] == classes[initialState]) {
+                    block.set(s);
+                }
+            }
+            if (seen.add(block)) {
+                blocks.add(block.stream().toArray());
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Checks whether the image of some minimal block under the given permutation contains only rejecting states.
+     *
+     * @param dfa The compact representation of the permutation automaton.
+     * @param blocks The minimal blocks containing the initial state.
+     * @param permutation The permutation mapping the initial state to the checked state.
+     * @return True if the checked state is covered by a block of rejecting states; false otherwise.
+     */
+    private static boolean coveredByBlock(CompactDFA dfa, List<int[]> blocks, int[] permutation) {
+        for (int[] block : blocks) {
+            boolean rejecting = true;
+            for (int i = 0; i < block.length && rejecting; i++) {
+                rejecting = !dfa.isAccepting(permutation[block[i]]);
+            }
+            if (rejecting) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 //---------------------------------isComposite - Commutative - Deterministic--------------------------------------------
     /**
      * Determines whether the commutative permutation automaton is composite.
      * The algorithm attempts to find a word that covers all rejecting states of the DFA.
+     * The words are given by the exponents of the letters and evaluated with the {@link PowerTable} of the DFA.
      *
      * @return True if the automaton is composite; false otherwise.
      */
     public boolean isCompositeCommutative(){
-        List<String> rejectingStates = this.getRejectingStates();
-        for(String p : rejectingStates){
+        CompactDFA dfa = compressedCompact();
+        PowerTable table = PowerTable.of(dfa);
+        int[] rejectingStates = getRejectingStates(dfa);
+        for(int p : rejectingStates){
             boolean cover_found = false;
-            for(String q : rejectingStates){
-                if(!Objects.equals(p, q) && coverCommutative(p, q)){
+            for(int q : rejectingStates){
+                if(p != q && coverCommutative(dfa, table, p, q)){
                     cover_found = true;
                     break;
                 }
@@ -1379,7 +1682,7 @@ public class DFA {
                 return false;
             }
         }
-        return !rejectingStates.isEmpty();
+        return rejectingStates.length > 0;
     }
 
     /**
@@ -1387,17 +1690,19 @@ public class DFA {
      * that leads from state p to the target state q, such that no state encountered
      * during any number of repeated applications of this word is an accepting state.
      *
+     * @param dfa The compact representation of the automaton.
+     * @param table The power table of the letters of the automaton.
      * @param p The state whose coverage is being analyzed.
      * @param q The target state that should be reached after processing the input from state p.
      *
      * @return True if the state p is covered, false otherwise.
      */
-    private boolean coverCommutative(String p, String q){
-        String s = q;
-        List<Integer> powers = new ArrayList<>(java.util.Collections.nCopies(this.getAlphabet().size(), 0));
-        while(!Objects.equals(s, p)){
-            s = mimic(powers, 0, 0, p, q, s);
-            if(s == null || this.getAcceptStates().contains(s)){
+    private static boolean coverCommutative(CompactDFA dfa, PowerTable table, int p, int q){
+        int s = q;
+        int[] powers = new int[dfa.getSymbolCount()];
+        while(s != p){
+            s = mimic(dfa, table, powers, 0, 0, p, q, s);
+            if(s == CompactDFA.NO_STATE || dfa.isAccepting(s)){
                 return false;
             }
         }
@@ -1405,75 +1710,84 @@ public class DFA {
     }
 
     /**
-     * Constructs a word based on a list of exponents, where each exponent represents
-     * the number of repetitions of the corresponding alphabet letter.
+     * Generates all possible exponent combinations to construct candidate words under the assumption of commutativity.
+     * The states are interned and the words are applied with the {@link PowerTable} of the DFA.
      *
-     * @param exponents A list of integers indicating how many times each letter should appear in the word.
+     * @param powers A list of exponents representing how many times each letter from the alphabet is used,
+     *               in the iteration order of the alphabet.
+     * @param index The index of the current letter in the alphabet.
+     * @param sum The number of letters used so far.
+     * @param p The rejecting state being checked for coverage.
+     * @param q The target state the automaton should reach after processing the generated word from state p.
+     * @param s An auxiliary state used during the computation.
      *
-     * @return A list of letters forming the constructed word.
+     * @return The state reached after processing the found word from state s, or null if no word leads from p to q.
      */
-    private List<String> createWord(List<Integer> exponents){
-        List<String> word = new ArrayList<>();
-        int index = 0;
-        for(String letter : this.getAlphabet()){
-            for(int i = 0; i < exponents.get(index); i++){
-                word.add(letter);
+    public String mimic(List<Integer> powers, int index, int sum, String p, String q, String s) {
+        CompactDFA dfa = compactInAlphabetOrder();
+        int[] exponents = powers.stream().mapToInt(Integer::intValue).toArray();
+        int state = mimic(dfa, PowerTable.of(dfa), exponents, index, sum,
+                dfa.indexOfState(p), dfa.indexOfState(q), dfa.indexOfState(s));
+        return state != CompactDFA.NO_STATE ? dfa.getStateName(state) : null;
+    }
+
+    /**
+     * Interns the DFA with the symbols in the iteration order of the alphabet, so that the exponents passed to the
+     * public mimic methods index the letters as before.
+     *
+     * @return The compact DFA whose symbol i is the i-th letter of the alphabet.
+     */
+    private CompactDFA compactInAlphabetOrder() {
+        CompactDFA dfa = CompactDFA.of(this);
+        String[] letters = this.getAlphabet().toArray(new String[0]);
+        int[] columns = new int[letters.length];
+        for(int i = 0; i < letters.length; i++){
+            for(int symbol = 0; symbol < dfa.getSymbolCount(); symbol++){
+                if(dfa.getSymbol(symbol).equals(letters[i])){
+                    columns[i] = symbol;
+                }
             }
-            index++;
         }
-        return word;
+        return dfa.withColumns(letters, columns);
     }
 
     /**
      * Generates all possible exponent combinations to construct candidate words under the assumption of commutativity.
+     * A word is never built, it is applied to the states by its exponents with the power table.
      *
-     * @param powers A list of exponents representing how many times each letter from the alphabet is used.
+     * @param dfa The compact representation of the automaton.
+     * @param table The power table of the letters of the automaton.
+     * @param powers The exponents representing how many times each letter from the alphabet is used.
      * @param index The index of the current letter in the alphabet.
      * @param sum The number of letters used so far.
      * @param p The rejecting state being checked for coverage.
      * @param q The target state the automaton should reach after processing the generated word from state p.
      * @param s An auxiliary state used during the computation.
      *
-     * @return True if the rejecting state p is covered; false otherwise.
+     * @return The state reached after processing the found word from state s,
+     *         or {@link CompactDFA#NO_STATE} if no word leads from p to q.
      */
-    public String mimic(List<Integer> powers, int index, int sum, String p, String q, String s) {
-        if(index == this.getAlphabet().size()){
+    private static int mimic(CompactDFA dfa, PowerTable table, int[] powers, int index, int sum, int p, int q, int s) {
+        if(index == dfa.getSymbolCount()){
             if(sum == 0){
-                return null;
+                return CompactDFA.NO_STATE;
             }
-            List<String> word = createWord(powers);
-            if(Objects.equals(traverse(p, word), q)){
-                return traverse(s, word);
+            if(table.apply(p, powers) == q){
+                return table.apply(s, powers);
             }
             else{
-                return null;
+                return CompactDFA.NO_STATE;
             }
         }
-        for(int x = 0; x <= this.getStates().size() - sum; x++){
-            powers.set(index, x);
-            String state = mimic(powers, index + 1, sum + powers.get(index), p, q, s);
-            powers.set(index, 0);
-            if(state != null){
+        for(int x = 0; x <= dfa.getStateCount() - sum; x++){
+            powers[index] = x;
+            int state = mimic(dfa, table, powers, index + 1, sum + powers[index], p, q, s);
+            powers[index] = 0;
+            if(state != CompactDFA.NO_STATE){
                 return state;
             }
         }
-        return null;
-    }
-
-    /**
-     * Executes the transition function of the automaton by processing the given word
-     * starting from the specified state.
-     *
-     * @param state The initial state from which the word is processed.
-     * @param word The word to be processed by the automaton.
-     *
-     * @return The resulting state after the entire word has been processed.
-     */
-    private String traverse(String state, List<String> word){
-        for(String letter : word){
-            state = this.getTransitionFunction().get(Map.of(state, letter));
-        }
-        return state;
+        return CompactDFA.NO_STATE;
     }
 
 //---------------------------------isComposite - Commutative - Saved Word-----------------------------------------------
@@ -1486,11 +1800,13 @@ public class DFA {
      * @return True if the automaton is composite; false otherwise.
      */
     public boolean isCompositeCommutativeSavedWord(){
-        List<String> rejectingStates = this.getRejectingStates();
-        for(String p : rejectingStates){
+        CompactDFA dfa = compressedCompact();
+        PowerTable table = PowerTable.of(dfa);
+        int[] rejectingStates = getRejectingStates(dfa);
+        for(int p : rejectingStates){
             boolean cover_found = false;
-            for(String q : rejectingStates){
-                if(!Objects.equals(p, q) && coverCommutativeSavedWord(p, q)){
+            for(int q : rejectingStates){
+                if(p != q && coverCommutativeSavedWord(dfa, table, p, q)){
                     cover_found = true;
                     break;
                 }
@@ -1499,40 +1815,39 @@ public class DFA {
                 return false;
             }
         }
-        return !rejectingStates.isEmpty();
+        return rejectingStates.length > 0;
     }
 
     /**
      * Determines whether the state p is covered, i.e., whether there exists a word
      * that leads from state p to the target state q, such that no state encountered
      * during any number of repeated applications of this word is an accepting state.
-     * The covering word is stored to avoid redundant recomputation during repeated
+     * The exponents of the covering word are stored to avoid redundant recomputation during repeated
      * applications of the word.
      *
+     * @param dfa The compact representation of the automaton.
+     * @param table The power table of the letters of the automaton.
      * @param p The state whose coverage is being analyzed.
      * @param q The target state that should be reached after processing the input from state p.
      *
      * @return True if the state p is covered, false otherwise.
      */
-    private boolean coverCommutativeSavedWord(String p, String q){
-        String s = q;
-        List<Integer> powers = new ArrayList<>(java.util.Collections.nCopies(this.getAlphabet().size(), 0));
-        List<String> word = new ArrayList<>();
-        while(!Objects.equals(s, p)){
-            if(word.isEmpty()){
-                Pair<String, List<String>> pair = mimicSavedWord(powers, 0, 0, p, q, s);
-                if(pair == null){
+    private static boolean coverCommutativeSavedWord(CompactDFA dfa, PowerTable table, int p, int q){
+        int s = q;
+        int[] powers = new int[dfa.getSymbolCount()];
+        int[] word = null;
+        while(s != p){
+            if(word == null){
+                word = new int[dfa.getSymbolCount()];
+                s = mimicSavedWord(dfa, table, powers, 0, 0, p, q, s, word);
+                if(s == CompactDFA.NO_STATE){
                     return false;
                 }
-                else{
-                    s = pair.getKey();
-                    word = pair.getValue();
-                }
             }
             else{
-                s = traverse(s, word);
+                s = table.apply(s, word);
             }
-            if(this.getAcceptStates().contains(s)){
+            if(s == CompactDFA.NO_STATE || dfa.isAccepting(s)){
                 return false;
             }
         }
@@ -1541,38 +1856,442 @@ public class DFA {
 
     /**
      * Generates all possible exponent combinations to construct candidate words under the assumption of commutativity.
+     * The states are interned and the words are applied with the {@link PowerTable} of the DFA.
      *
-     * @param powers A list of exponents representing how many times each letter from the alphabet is used.
+     * @param powers A list of exponents representing how many times each letter from the alphabet is used,
+     *               in the iteration order of the alphabet.
      * @param index The index of the current letter in the alphabet.
      * @param sum The number of letters used so far.
      * @param p The rejecting state being checked for coverage.
      * @param q The target state the automaton should reach after processing the generated word from state p.
      * @param s An auxiliary state used during the computation.
      *
-     * @return True if the rejecting state p is covered; false otherwise.
+     * @return The state reached after processing the found word from state s together with the word,
+     *         or null if no word leads from p to q.
      */
     public Pair<String, List<String>> mimicSavedWord(List<Integer> powers, int index, int sum, String p, String q, String s) {
-        if(index == this.getAlphabet().size()){
+        CompactDFA dfa = compactInAlphabetOrder();
+        int[] exponents = powers.stream().mapToInt(Integer::intValue).toArray();
+        int[] word = new int[exponents.length];
+        int state = mimicSavedWord(dfa, PowerTable.of(dfa), exponents, index, sum,
+                dfa.indexOfState(p), dfa.indexOfState(q), dfa.indexOfState(s), word);
+        if(state == CompactDFA.NO_STATE){
+            return null;
+        }
+        List<String> letters = new ArrayList<>();
+        for(int symbol = 0; symbol < word.length; symbol++){
+            for(int i = 0; i < word[symbol]; i++){
+                letters.add(dfa.getSymbol(symbol));
+            }
+        }
+        return Pair.of(dfa.getStateName(state), letters);
+    }
+
+    /**
+     * Generates all possible exponent combinations to construct candidate words under the assumption of commutativity.
+     *
+     * @param dfa The compact representation of the automaton.
+     * @param table The power table of the letters of the automaton.
+     * @param powers The exponents representing how many times each letter from the alphabet is used.
+     * @param index The index of the current letter in the alphabet.
+     * @param sum The number of letters used so far.
+     * @param p The rejecting state being checked for coverage.
+     * @param q The target state the automaton should reach after processing the generated word from state p.
+     * @param s An auxiliary state used during the computation.
+     * @param word Receives the exponents of the found word.
+     *
+     * @return The state reached after processing the found word from state s,
+     *         or {@link CompactDFA#NO_STATE} if no word leads from p to q.
+     */
+    private static int mimicSavedWord(CompactDFA dfa, PowerTable table, int[] powers, int index, int sum, int p, int q,
+                                      int s, int[] word) {
+        if(index == dfa.getSymbolCount()){
             if(sum == 0){
-                return null;
+                return CompactDFA.NO_STATE;
             }
-            List<String> word = createWord(powers);
-            if(Objects.equals(traverse(p, word), q)){
-                return Pair.of(traverse(s, word), word);
+            if(table.apply(p, powers) == q){
+                System.arraycopy(powers, 0, word, 0, powers.length);
+                return table.apply(s, powers);
             }
             else{
-                return null;
+                return CompactDFA.NO_STATE;
             }
         }
-        for(int x = 0; x <= this.getStates().size() - sum; x++){
-            powers.set(index, x);
-            Pair<String, List<String>> pair = mimicSavedWord(powers, index + 1, sum + powers.get(index), p, q, s);
-            powers.set(index, 0);
-            if(pair != null){
-                return pair;
+        for(int x = 0; x <= dfa.getStateCount() - sum; x++){
+            powers[index] = x;
+            int state = mimicSavedWord(dfa, table, powers, index + 1, sum + powers[index], p, q, s, word);
+            powers[index] = 0;
+            if(state != CompactDFA.NO_STATE){
+                return state;
             }
         }
-        return null;
+        return CompactDFA.NO_STATE;
+    }
+
+//---------------------------------isComposite - Commutative - Breadth-First Search-------------------------------------
+
+    /**
+     * Determines whether the commutative permutation automaton is composite.
+     * The algorithm attempts to find a word that covers all rejecting states of the DFA. Instead of enumerating
+     * exponent vectors, the words leading from a rejecting state p to all other states are read from a
+     * breadth-first search tree rooted in p. In a commutative permutation automaton all words leading from p
+     * to q act on the states reachable from p in the same way, so the shortest one is as good as any other.
+     *
+     * @return True if the automaton is composite; false otherwise.
+     */
+    public boolean isCompositeCommutativeBFS(){
+        CompactDFA dfa = compressedCompact();
+        int[] rejectingStates = getRejectingStates(dfa);
+        int[] parentState = new int[dfa.getStateCount()];
+        int[] parentSymbol = new int[dfa.getStateCount()];
+        for(int p : rejectingStates){
+            searchTree(dfa, p, parentState, parentSymbol);
+            boolean cover_found = false;
+            for(int q : rejectingStates){
+                if(p != q && coverCommutativeBFS(dfa, p, q, treeWord(q, parentState, parentSymbol))){
+                    cover_found = true;
+                    break;
+                }
+            }
+            if(!cover_found){
+                return false;
+            }
+        }
+        return rejectingStates.length > 0;
+    }
+
+    /**
+     * Builds the breadth-first search tree of the states reachable from the given root.
+     *
+     * @param dfa The compact representation of the automaton.
+     * @param root The root of the tree.
+     * @param parentState Receives the parent of every state in the tree, {@link CompactDFA#NO_STATE} for
+     *                    the root and for states that are not reachable.
+     * @param parentSymbol Receives the symbol leading from the parent to every state in the tree.
+     */
+    private static void searchTree(CompactDFA dfa, int root, int[] parentState, int[] parentSymbol){
+        Arrays.fill(parentState, CompactDFA.NO_STATE);
+        boolean[] visited = new boolean[dfa.getStateCount()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        visited[root] = true;
+        queue.add(root);
+        while(!queue.isEmpty()){
+            int state = queue.poll();
+            for(int symbol = 0; symbol < dfa.getSymbolCount(); symbol++){
+                int nextState = dfa.step(state, symbol);
+                if(nextState != CompactDFA.NO_STATE && !visited[nextState]){
+                    visited[nextState] = true;
+                    parentState[nextState] = state;
+                    parentSymbol[nextState] = symbol;
+                    queue.add(nextState);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the word leading from the root of a breadth-first search tree to the given state.
+     *
+     * @param state The state at the end of the word.
+     * @param parentState The parent of every state in the tree.
+     * @param parentSymbol The symbol leading from the parent to every state in the tree.
+     *
+     * @return The symbols of the word, or null if the state is the root or is not in the tree.
+     */
+    private static int[] treeWord(int state, int[] parentState, int[] parentSymbol){
+        int length = 0;
+        for(int s = state; parentState[s] != CompactDFA.NO_STATE; s = parentState[s]){
+            length++;
+        }
+        if(length == 0){
+            return null;
+        }
+        int[] word = new int[length];
+        for(int s = state; parentState[s] != CompactDFA.NO_STATE; s = parentState[s]){
+            word[--length] = parentSymbol[s];
+        }
+        return word;
+    }
+
+    /**
+     * Determines whether the state p is covered, i.e., whether repeated applications of the word leading
+     * from state p to the target state q return to p without encountering an accepting state.
+     *
+     * @param dfa The compact representation of the automaton.
+     * @param p The state whose coverage is being analyzed.
+     * @param q The target state reached after processing the word from state p.
+     * @param word The word leading from p to q, or null if q is not reachable from p.
+     *
+     * @return True if the state p is covered, false otherwise.
+     */
+    private static boolean coverCommutativeBFS(CompactDFA dfa, int p, int q, int[] word){
+        if(word == null){
+            return false;
+        }
+        int s = q;
+        for(int i = 0; s != p; i++){
+            if(i >= dfa.getStateCount()){
+                return false;
+            }
+            for(int symbol : word){
+                s = dfa.step(s, symbol);
+                if(s == CompactDFA.NO_STATE){
+                    return false;
+                }
+            }
+            if(dfa.isAccepting(s)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+//---------------------------------isComposite - Commutative - Group--------------------------------------------------
+
+    /**
+     * Determines whether the commutative permutation automaton is composite using the structure of its transition
+     * group. On the orbit O of a state, the abelian transition group acts regularly, so O is a copy of the group
+     * {@code Z^k / L}, where k is the size of the alphabet and L is the lattice of exponent vectors of words acting
+     * trivially on O. The lattice is generated by the relations read from a breadth-first search tree of O, and its
+     * Smith normal form gives the invariant factors of the group together with a generator of every cyclic factor.
+     * <p>
+     * A rejecting state p is covered by a word w leading to another rejecting state exactly when the coset of p under
+     * the cyclic group generated by w contains only rejecting states. Every nontrivial cyclic group contains
+     * a subgroup of prime order, so p is covered exactly when some subgroup H of prime order l has only rejecting
+     * states in the coset pH. The elements of order l form the l-torsion subgroup, a vector space over
+     * {@code Z / l} spanned by the powers {@code g^(d / l)} of the generators of the cyclic factors with l dividing
+     * their order d, and the subgroups of order l are its one-dimensional subspaces. These are checked for every
+     * prime l dividing |O|, marking whole cosets of rejecting states as covered, so no words are enumerated.
+     * If the automaton is not a commutative permutation automaton, the method falls back to {@link #isCompositeBlocks()}.
+     *
+     * @return True if the automaton is composite; false otherwise.
+     */
+    public boolean isCompositeCommutativeGroup(){
+        CompactDFA dfa = compressedCompact();
+        int[] rejectingStates = getRejectingStates(dfa);
+        if(rejectingStates.length == 0){
+            return false;
+        }
+        if(!dfa.isPermutation() || !dfa.isCommutative()){
+            return isCompositeBlocks();
+        }
+
+        int[] orbits = PermutationGroup.of(dfa).orbits();
+        PowerTable table = PowerTable.of(dfa);
+        boolean[] covered = new boolean[dfa.getStateCount()];
+        boolean[] processed = new boolean[dfa.getStateCount()];
+        for(int p : rejectingStates){
+            int root = orbits[p];
+            if(!processed[root]){
+                processed[root] = true;
+                if(!coverOrbitByGroup(dfa, table, root, covered)){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks the rejecting states of the orbit of the given state that are covered by a coset of a subgroup of prime
+     * order, see {@link #isCompositeCommutativeGroup()}.
+     *
+     * @param dfa The compact representation of the commutative permutation automaton.
+     * @param table The power table of the letters of the automaton.
+     * @param root The smallest state of the orbit.
+     * @param covered The covered states, updated in place.
+     * @return True if all rejecting states of the orbit are covered; false otherwise.
+     */
+    private static boolean coverOrbitByGroup(CompactDFA dfa, PowerTable table, int root, boolean[] covered){
+        int k = dfa.getSymbolCount();
+        int[] orbit = new int[dfa.getStateCount()];
+        long[][] exponents = new long[dfa.getStateCount()][];
+        exponents[root] = new long[k];
+        orbit[0] = root;
+        int size = 1;
+        List<long[]> relations = new ArrayList<>();
+        for(int head = 0; head < size; head++){
+            int state = orbit[head];
+            for(int symbol = 0; symbol < k; symbol++){
+                int nextState = dfa.step(state, symbol);
+                long[] word = exponents[state].clone();
+                word[symbol]++;
+                if(exponents[nextState] == null){
+                    exponents[nextState] = word;
+                    orbit[size++] = nextState;
+                    continue;
+                }
+                // Both words lead from the root to the next state, so their difference acts trivially
+                for(int j = 0; j < k; j++){
+                    word[j] -= exponents[nextState][j];
+                }
+                relations.add(word);
+            }
+        }
+        orbit = Arrays.copyOf(orbit, size);
+
+        int remaining = 0;
+        for(int state : orbit){
+            if(!dfa.isAccepting(state) && !covered[state]){
+                remaining++;
+            }
+        }
+        if(size == 1){
+            return remaining == 0;
+        }
+
+        long[] letterOrders = new long[k];
+        for(int symbol = 0; symbol < k; symbol++){
+            letterOrders[symbol] = table.cycleLength(root, symbol);
+        }
+        SmithNormalForm form = SmithNormalForm.of(relations, k, size);
+        long[] factors = form.invariantFactors();
+        int[][] generators = new int[k][];
+        for(int factor = 0; factor < k; factor++){
+            if(factors[factor] > 1){
+                generators[factor] = orbitPermutation(dfa, table, orbit, form.generator(factor, letterOrders));
+            }
+        }
+
+        for(long prime = 2; prime <= size && remaining > 0; prime++){
+            if(size % prime != 0 || !isPrime(prime)){
+                continue;
+            }
+            List<int[]> torsion = new ArrayList<>();
+            for(int factor = 0; factor < k; factor++){
+                if(factors[factor] % prime == 0){
+                    torsion.add(power(generators[factor], orbit, factors[factor] / prime));
+                }
+            }
+            remaining -= coverByLines(dfa, orbit, torsion, (int) prime, covered);
+        }
+        return remaining == 0;
+    }
+
+    /**
+     * Marks the rejecting states p whose coset pH is rejecting for a subgroup H of the given prime order. The
+     * subgroups are the lines of the vector space spanned by the torsion generators, each given by a coefficient
+     * vector whose first non-zero coefficient is 1.
+     *
+     * @param dfa The compact representation of the automaton.
+     * @param orbit The states of the orbit.
+     * @param torsion Independent elements of the given prime order, as permutations of the states of the orbit.
+     * @param prime The prime order.
+     * @param covered The covered states, updated in place.
+     * @return The number of newly covered rejecting states.
+     */
+    private static int coverByLines(CompactDFA dfa, int[] orbit, List<int[]> torsion, int prime, boolean[] covered){
+        int rank = torsion.size();
+        int[][][] powers = new int[rank][prime][];
+        for(int t = 0; t < rank; t++){
+            powers[t][1] = torsion.get(t);
+            for(int c = 2; c < prime; c++){
+                powers[t][c] = compose(powers[t][c - 1], torsion.get(t), orbit);
+            }
+        }
+
+        int newlyCovered = 0;
+        int[] coefficients = new int[rank];
+        while(increment(coefficients, prime)){
+            int lead = 0;
+            while(coefficients[lead] == 0){
+                lead++;
+            }
+            if(coefficients[lead] != 1){
+                continue;
+            }
+            int[] element = powers[lead][1];
+            for(int t = lead + 1; t < rank; t++){
+                if(coefficients[t] != 0){
+                    element = compose(element, powers[t][coefficients[t]], orbit);
+                }
+            }
+            for(int p : orbit){
+                if(dfa.isAccepting(p) || covered[p]){
+                    continue;
+                }
+                boolean rejecting = true;
+                for(int s = element[p]; s != p && rejecting; s = element[s]){
+                    rejecting = !dfa.isAccepting(s);
+                }
+                if(rejecting){
+                    for(int s = element[p]; ; s = element[s]){
+                        if(!covered[s]){
+                            covered[s] = true;
+                            newlyCovered++;
+                        }
+                        if(s == p){
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return newlyCovered;
+    }
+
+    /**
+     * Computes the permutation of the states of the orbit induced by a word with the given exponents of the letters.
+     */
+    private static int[] orbitPermutation(CompactDFA dfa, PowerTable table, int[] orbit, long[] exponents){
+        int[] permutation = new int[dfa.getStateCount()];
+        for(int state : orbit){
+            permutation[state] = table.apply(state, exponents);
+        }
+        return permutation;
+    }
+
+    /**
+     * Composes two permutations of the states of the orbit, applying the first one first.
+     */
+    private static int[] compose(int[] first, int[] second, int[] orbit){
+        int[] product = new int[first.length];
+        for(int state : orbit){
+            product[state] = second[first[state]];
+        }
+        return product;
+    }
+
+    /**
+     * Raises a permutation of the states of the orbit to the given power by repeated squaring.
+     */
+    private static int[] power(int[] permutation, int[] orbit, long exponent){
+        int[] result = new int[permutation.length];
+        for(int state : orbit){
+            result[state] = state;
+        }
+        int[] square = permutation;
+        for(long e = exponent; e > 0; e >>= 1){
+            if((e & 1) == 1){
+                result = compose(result, square, orbit);
+            }
+            square = compose(square, square, orbit);
+        }
+        return result;
+    }
+
+    /**
+     * Moves to the next coefficient vector in lexicographic order like an odometer.
+     *
+     * @return False once all vectors were visited and the vector is zero again.
+     */
+    private static boolean increment(int[] coefficients, int modulus){
+        for(int i = coefficients.length - 1; i >= 0; i--){
+            if(++coefficients[i] < modulus){
+                return true;
+            }
+            coefficients[i] = 0;
+        }
+        return false;
+    }
+
+    private static boolean isPrime(long number){
+        for(long divisor = 2; divisor * divisor <= number; divisor++){
+            if(number % divisor == 0){
+                return false;
+            }
+        }
+        return number >= 2;
     }
 
 //---------------------------------isComposite - Commutative - Big Alphabet--------------------------------------------
@@ -1580,16 +2299,20 @@ public class DFA {
     /**
      * Determines whether the commutative permutation automaton is composite.
      * The algorithm attempts to find a word that covers all rejecting states of the DFA
-     * with respect to a large input alphabet.
+     * with respect to a large input alphabet. The words are not enumerated letter by letter as in
+     * {@link #mimicBigAlphabet(int, String, String, String)}, the pairs of states they lead to are searched
+     * instead, see {@link #mimicBigAlphabetPairs(CompactDFA, int, int, int, PairQueue)}.
      *
-     * @return True if the automaton is composite; true otherwise.
+     * @return True if the automaton is composite; false otherwise.
      */
     public boolean isCompositeCommutativeBigAlphabet(){
-        List<String> rejectingStates = this.getRejectingStates();
-        for(String p : rejectingStates){
+        CompactDFA dfa = compressedCompact();
+        int[] rejectingStates = getRejectingStates(dfa);
+        PairQueue queue = new PairQueue(dfa.getStateCount());
+        for(int p : rejectingStates){
             boolean cover_found = false;
-            for(String q : rejectingStates){
-                if(!Objects.equals(p, q) && coverCommutativeBigAlphabet(p, q)){
+            for(int q : rejectingStates){
+                if(p != q && coverCommutativeBigAlphabet(dfa, p, q, queue)){
                     cover_found = true;
                     break;
                 }
@@ -1598,30 +2321,78 @@ public class DFA {
                 return false;
             }
         }
-        return !rejectingStates.isEmpty();
+        return rejectingStates.length > 0;
     }
 
     /**
      * Determines whether the state p is covered, i.e., whether there exists a word
      * that leads from state p to the target state q, such that no state encountered
      * during any number of repeated applications of this word is an accepting state.
+     * The states s, s.w, s.w.w, ... repeat after at most |Q| applications, so the search stops
+     * if p was not reached by then.
      *
+     * @param dfa The compact representation of the automaton.
      * @param p The state whose coverage is being analyzed.
      * @param q The target state that should be reached after processing the input from state p.
+     * @param queue The queue of the pairs, reused between the searches.
      *
      * @return True if the state p is covered, false otherwise.
      */
-    private boolean coverCommutativeBigAlphabet(String p, String q){
-        String s = q;
-        while(!Objects.equals(s, p)){
-            s = mimicBigAlphabet(0, p, q, s);
-            if(s == null || this.getAcceptStates().contains(s)){
+    private static boolean coverCommutativeBigAlphabet(CompactDFA dfa, int p, int q, PairQueue queue){
+        int s = q;
+        for(int i = 0; s != p; i++){
+            if(i >= dfa.getStateCount()){
+                return false;
+            }
+            s = mimicBigAlphabetPairs(dfa, p, q, s, queue);
+            if(s == CompactDFA.NO_STATE || dfa.isAccepting(s)){
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Simulates a word leading from state p to the target state q on the state s. Two words reaching the same
+     * pair of states from (p, s) cannot be told apart by the rest of the search, so the pairs of states are
+     * searched breadth-first and each of the |Q|^2 pairs is visited at most once. This takes
+     * O(|Q|^2 |alphabet|) steps instead of the |alphabet|^|Q| words of
+     * {@link #mimicBigAlphabet(int, String, String, String)}, and the {@link PairQueue} makes a search cost
+     * time only for the pairs it reaches.
+     *
+     * @param dfa The compact representation of the automaton.
+     * @param p The state whose coverage is being analyzed.
+     * @param q The target state that should be reached after processing the input from state p.
+     * @param s Auxiliary state used during the computation.
+     * @param queue The queue of the pairs, reused between the searches.
+     *
+     * @return The state reached after simulating the shortest word from state s,
+     *         or {@link CompactDFA#NO_STATE} if q is not reachable from p.
+     */
+    private static int mimicBigAlphabetPairs(CompactDFA dfa, int p, int q, int s, PairQueue queue){
+        if(p == q){
+            return s;
+        }
+        queue.start(p, s);
+        while(!queue.isEmpty()){
+            long pair = queue.poll();
+            int first = PairQueue.first(pair);
+            int second = PairQueue.second(pair);
+            for(int symbol = 0; symbol < dfa.getSymbolCount(); symbol++){
+                int nextFirst = dfa.step(first, symbol);
+                int nextSecond = dfa.step(second, symbol);
+                if(nextFirst == CompactDFA.NO_STATE || nextSecond == CompactDFA.NO_STATE){
+                    continue;
+                }
+                if(nextFirst == q){
+                    return nextSecond;
+                }
+                queue.offer(nextFirst, nextSecond);
+            }
+        }
+        return CompactDFA.NO_STATE;
+    }
+
     /**
      * Iteratively explores all possible input words of length up to the number of states in the automaton,
      * simulating transitions character by character without storing the actual words.
@@ -1643,9 +2414,9 @@ public class DFA {
         for(String letter : this.getAlphabet()){
             String r = mimicBigAlphabet(
                     l + 1,
-                    this.getTransitionFunction().get(Map.of(p, letter)),
+                    step(p, letter),
                     q,
-                    this.getTransitionFunction().get(Map.of(s, letter))
+                    step(s, letter)
             );
             if(r != null){
                 return r;
@@ -0,0 +1,29 @@
+package org.example;
+
+/**
+ * Engine searching the candidate DFAs that accept the language of a DFA, i.e. its possible factors,
+ * when computing the alpha set, the roof and primality.
+ */
+public enum FactorSearch {
+    /**
+     * Enumerates every canonical initially-connected candidate with every accepting mask and tests
+     * the inclusion of languages for each of them.
+     */
+    BRUTE_FORCE,
+    /**
+     * Enumerates the same candidates as {@link #BRUTE_FORCE}, split by the prefixes of their transition tables
+     * into fork/join tasks of a parallel stream that share a thread-safe roof.
+     */
+    PARALLEL,
+    /**
+     * Builds candidates one transition at a time while exploring their product with the DFA, see
+     * {@link BacktrackingCandidateSearch}.
+     */
+    BACKTRACKING,
+    /**
+     * Scans the minimal DFAs of the on-disk {@link MinimalDFALibrary#getDefault() default library}, which are
+     * generated once per alphabet size and number of states and memory-mapped afterwards. The methods taking a
+     * {@link MinimalDFALibrary} scan that library instead.
+     */
+    LIBRARY
+}
@@ -0,0 +1,175 @@
+package org.example;
+
+/**
+ * Bit-sliced check of the inclusion of the language of one DFA in the languages of up to 64 candidate DFAs.
+ * Every candidate occupies one lane, i.e. one bit of a long. For every state p of the DFA and every state q
+ * of the candidates, a long holds the lanes in which the pair (p, q) is reachable, and for every symbol and
+ * pair of candidate states a long holds the lanes whose candidate has that transition. The reachable pairs
+ * of all lanes are then propagated together by a single worklist over the states of the DFA, so one search
+ * answers the inclusion queries of all candidates.
+ */
+final class InclusionKernel {
+    /**
+     * The largest number of candidates checked at once.
+     */
+    static final int LANES = Long.SIZE;
+
+    private InclusionKernel() {
+    }
+
+    /**
+     * Checks the inclusion of the language of the DFA in the language of each candidate. Missing transitions
+     * of a candidate lead to a rejecting virtual dead state.
+     *
+     * @param dfa The DFA whose language is tested.
+     * @param candidates The candidate DFAs over the same alphabet, lane i holds {@code candidates[i]}.
+     * @param count The number of candidates to check, at most {@link #LANES}.
+     * @return The mask of lanes whose candidate accepts every word accepted by the DFA.
+     */
+    static long includedIn(CompactDFA dfa, CompactDFA[] candidates, int count) {
+        return includedIn(dfa, new CandidateBlock(candidates, count));
+    }
+
+    /**
+     * Checks the inclusion of the language of the DFA in the language of each candidate of an encoded block.
+     * The block does not depend on the DFA, so it can be tested against many DFAs.
+     *
+     * @param dfa The DFA whose language is tested.
+     * @param block The encoded candidates over the alphabet of the DFA.
+     * @return The mask of lanes whose candidate accepts every word accepted by the DFA.
+     */
+    static long includedIn(CompactDFA dfa, CandidateBlock block) {
+        if (block.count > 0 && !dfa.hasSameAlphabet(block.alphabet)) {
+            throw new IllegalArgumentException("DFAs must have the same alphabet");
+        }
+        long allLanes = block.allLanes;
+        if (dfa.getInitialState() == CompactDFA.NO_STATE) {
+            return allLanes;
+        }
+        int symbolCount = dfa.getSymbolCount();
+        int columns = block.columns;
+        long[] transitions = block.transitions;
+        long[] rejecting = block.rejecting;
+
+        long[] reachable = new long[dfa.getStateCount() * columns];
+        System.arraycopy(block.initial, 0, reachable, dfa.getInitialState() * columns, columns);
+
+        int[] queue = new int[dfa.getStateCount()];
+        boolean[] queued = new boolean[dfa.getStateCount()];
+        int head = 0;
+        int size = 0;
+        queue[0] = dfa.getInitialState();
+        queued[dfa.getInitialState()] = true;
+        size++;
+        long failed = 0;
+
+        while (size > 0) {
+            int state = queue[head];
+            head = (head + 1) % queue.length;
+            size--;
+            queued[state] = false;
+            int row = state * columns;
+
+            if (dfa.isAccepting(state)) {
+                for (int column = 0; column < columns; column++) {
+                    failed |= reachable[row + column] & rejecting[column];
+                }
+                if (failed == allLanes) {
+                    return 0;
+                }
+            }
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int nextState = dfa.step(state, symbol);
+                if (nextState == CompactDFA.NO_STATE) {
+                    continue;
+                }
+                int nextRow = nextState * columns;
+                boolean changed = false;
+                for (int column = 0; column < columns; column++) {
+                    long lanes = reachable[row + column] & ~failed;
+                    if (lanes == 0) {
+                        continue;
+                    }
+                    int offset = (symbol * columns + column) * columns;
+                    for (int nextColumn = 0; nextColumn < columns; nextColumn++) {
+                        long added = lanes & transitions[offset + nextColumn] & ~reachable[nextRow + nextColumn];
+                        if (added != 0) {
+                            reachable[nextRow + nextColumn] |= added;
+                            changed = true;
+                        }
+                    }
+                }
+                if (changed && !queued[nextState]) {
+                    queued[nextState] = true;
+                    queue[(head + size) % queue.length] = nextState;
+                    size++;
+                }
+            }
+        }
+        return allLanes & ~failed;
+    }
+
+    /**
+     * Up to {@link #LANES} candidates encoded into lanes: the transposed transition tables, the rejecting
+     * states and the initial states of all candidates, one bit per lane. The last column is the rejecting
+     * virtual dead state that replaces missing transitions.
+     */
+    static final class CandidateBlock {
+        private final CompactDFA alphabet;
+        private final int count;
+        private final long allLanes;
+        private final int columns;
+        private final long[] transitions;
+        private final long[] rejecting;
+        private final long[] initial;
+
+        /**
+         * Encodes the candidates into lanes.
+         *
+         * @param candidates The candidate DFAs over the same alphabet, lane i holds {@code candidates[i]}.
+         * @param count The number of candidates, at most {@link #LANES}.
+         */
+        CandidateBlock(CompactDFA[] candidates, int count) {
+            if (count < 0 || count > LANES) {
+                throw new IllegalArgumentException("The number of candidates must be between 0 and " + LANES);
+            }
+            this.alphabet = count > 0 ? candidates[0] : null;
+            this.count = count;
+            this.allLanes = count == LANES ? -1L : (1L << count) - 1;
+            int symbolCount = count > 0 ? alphabet.getSymbolCount() : 0;
+            int columnCount = 1;
+            for (int lane = 0; lane < count; lane++) {
+                if (!alphabet.hasSameAlphabet(candidates[lane])) {
+                    throw new IllegalArgumentException("DFAs must have the same alphabet");
+                }
+                columnCount = Math.max(columnCount, candidates[lane].getStateCount() + 1);
+            }
+            this.columns = columnCount;
+            int deadState = columns - 1;
+
+            this.transitions = new long[symbolCount * columns * columns];
+            this.rejecting = new long[columns];
+            this.initial = new long[columns];
+            rejecting[deadState] = allLanes;
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                transitions[(symbol * columns + deadState) * columns + deadState] = allLanes;
+            }
+            for (int lane = 0; lane < count; lane++) {
+                CompactDFA candidate = candidates[lane];
+                long bit = 1L << lane;
+                for (int state = 0; state < candidate.getStateCount(); state++) {
+                    if (!candidate.isAccepting(state)) {
+                        rejecting[state] |= bit;
+                    }
+                    for (int symbol = 0; symbol < symbolCount; symbol++) {
+                        int nextState = candidate.step(state, symbol);
+                        int column = nextState != CompactDFA.NO_STATE ? nextState : deadState;
+                        transitions[(symbol * columns + state) * columns + column] |= bit;
+                    }
+                }
+                int initialState = candidate.getInitialState();
+                initial[initialState != CompactDFA.NO_STATE ? initialState : deadState] |= bit;
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partition of an alphabet into classes of letters that induce the same transition column, i.e. the same
+ * transformation of the states, in each of the given DFAs. Letters of one class cannot be told apart by any
+ * word, so the DFAs are compressed to one letter per class, the smallest one, and analyses run on the
+ * compressed alphabet. Every word over the alphabet is mapped to a word over the representatives reaching the
+ * same states, so reachability, indistinguishability, the transition monoid and with it primality,
+ * compositeness, permutation and commutativity are the same for the compressed DFAs. A DFA over the
+ * representatives is mapped back to the whole alphabet by giving every letter the column of its class.
+ * <p>
+ * The candidates of the roof have |Q|^(|Q| |alphabet|) transition functions, so merging the letters shrinks
+ * the exponent of the enumeration of {@link DFA#isPrimeDFA()} directly.
+ */
+public final class LetterClasses {
+    private final String[] symbols;
+    private final int[] classOf;
+    private final int[] representatives;
+
+    private LetterClasses(String[] symbols, int[] classOf, int[] representatives) {
+        this.symbols = symbols;
+        this.classOf = classOf;
+        this.representatives = representatives;
+    }
+
+    /**
+     * Partitions the common alphabet of the DFAs into the classes of letters with identical transition columns
+     * in every DFA. The classes are numbered by their smallest letter.
+     *
+     * @param dfas The DFAs over the same alphabet, with at least one DFA.
+     * @return The letter classes of the DFAs.
+     * @throws IllegalArgumentException if no DFA is given or the alphabets differ.
+     */
+    public static LetterClasses of(CompactDFA... dfas) {
+        if (dfas.length == 0) {
+            throw new IllegalArgumentException("At least one DFA is needed");
+        }
+        for (CompactDFA dfa : dfas) {
+            if (!dfa.hasSameAlphabet(dfas[0])) {
+                throw new IllegalArgumentException("DFAs must have the same alphabet");
+            }
+        }
+
+        int symbolCount = dfas[0].getSymbolCount();
+        String[] symbols = new String[symbolCount];
+        int[] classOf = new int[symbolCount];
+        List<Integer> representatives = new ArrayList<>();
+        Map<Long, List<Integer>> classesByHash = new HashMap<>();
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            symbols[symbol] = dfas[0].getSymbol(symbol);
+            List<Integer> candidates = classesByHash.computeIfAbsent(columnHash(dfas, symbol), hash -> new ArrayList<>());
+            classOf[symbol] = CompactDFA.NO_STATE;
+            for (int letterClass : candidates) {
+                if (sameColumns(dfas, representatives.get(letterClass), symbol)) {
+                    classOf[symbol] = letterClass;
+                    break;
+                }
+            }
+            if (classOf[symbol] == CompactDFA.NO_STATE) {
+                classOf[symbol] = representatives.size();
+                candidates.add(representatives.size());
+                representatives.add(symbol);
+            }
+        }
+        return new LetterClasses(symbols, classOf, representatives.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Returns the number of letter classes, the size of the compressed alphabet.
+     *
+     * @return The number of classes.
+     */
+    public int getClassCount() {
+        return representatives.length;
+    }
+
+    /**
+     * Returns the class of the given letter of the alphabet.
+     *
+     * @param symbol The number of the letter in the alphabet.
+     * @return The number of its class, which is the number of its letter in the compressed alphabet.
+     */
+    public int classOf(int symbol) {
+        return classOf[symbol];
+    }
+
+    /**
+     * Returns the letters of the alphabet in the given class.
+     *
+     * @param letterClass The number of the class.
+     * @return The letters of the class in their natural order, the first one being its representative.
+     */
+    public String[] getSymbols(int letterClass) {
+        List<String> members = new ArrayList<>();
+        for (int symbol = 0; symbol < symbols.length; symbol++) {
+            if (classOf[symbol] == letterClass) {
+                members.add(symbols[symbol]);
+            }
+        }
+        return members.toArray(new String[0]);
+    }
+
+    /**
+     * Checks whether every class consists of a single letter, so compression does not change the alphabet.
+     *
+     * @return true if no two letters share a class, false otherwise.
+     */
+    public boolean isTrivial() {
+        return representatives.length == symbols.length;
+    }
+
+    /**
+     * Restricts a DFA over the alphabet to the representatives of the classes. The states keep their numbers.
+     *
+     * @param dfa A DFA over the alphabet, such as one of the DFAs the classes were computed from.
+     * @return The DFA over the compressed alphabet, or the DFA itself if the classes are trivial.
+     */
+    public CompactDFA compress(CompactDFA dfa) {
+        if (isTrivial()) {
+            return dfa;
+        }
+        String[] compressedSymbols = new String[representatives.length];
+        for (int letterClass = 0; letterClass < representatives.length; letterClass++) {
+            compressedSymbols[letterClass] = symbols[representatives[letterClass]];
+        }
+        return dfa.withColumns(compressedSymbols, representatives);
+    }
+
+    /**
+     * Maps a DFA over the compressed alphabet back to the alphabet, every letter taking the transitions
+     * of its class. The states keep their numbers.
+     *
+     * @param compressed A DFA over the compressed alphabet.
+     * @return The DFA over the whole alphabet, or the DFA itself if the classes are trivial.
+     */
+    public CompactDFA expand(CompactDFA compressed) {
+        if (isTrivial()) {
+            return compressed;
+        }
+        if (compressed.getSymbolCount() != representatives.length) {
+            throw new IllegalArgumentException("The DFA has " + compressed.getSymbolCount() + " symbols, not "
+                    + representatives.length);
+        }
+        return compressed.withColumns(symbols, classOf);
+    }
+
+    private static long columnHash(CompactDFA[] dfas, int symbol) {
+        long hash = 0xcbf29ce484222325L;
+        for (CompactDFA dfa : dfas) {
+            for (int state = 0; state < dfa.getStateCount(); state++) {
+                hash = (hash ^ dfa.step(state, symbol)) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    private static boolean sameColumns(CompactDFA[] dfas, int first, int second) {
+        for (CompactDFA dfa : dfas) {
+            for (int state = 0; state < dfa.getStateCount(); state++) {
+                if (dfa.step(state, first) != dfa.step(state, second)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
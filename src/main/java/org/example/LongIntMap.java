@@ -0,0 +1,86 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to non-negative int values, used to index pairs of states
+ * without boxing them.
+ */
+final class LongIntMap {
+    private static final int ABSENT = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param expectedSize The number of entries the map is expected to hold.
+     */
+    LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, ABSENT);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key The key.
+     * @return The value of the key, or -1 if the key is not present.
+     */
+    int get(long key) {
+        return values[find(keys, values, key)];
+    }
+
+    /**
+     * Associates the value with the key unless the key is already present.
+     *
+     * @param key   The key.
+     * @param value The non-negative value to associate.
+     * @return The value already associated with the key, or -1 if the value was added.
+     */
+    int putIfAbsent(long key, int value) {
+        int slot = find(keys, values, key);
+        if (values[slot] != ABSENT) {
+            return values[slot];
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+        return ABSENT;
+    }
+
+    private static int find(long[] keys, int[] values, long key) {
+        int mask = keys.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (values[slot] != ABSENT && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        Arrays.fill(values, ABSENT);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldValues[slot] != ABSENT) {
+                int target = find(keys, values, oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+}
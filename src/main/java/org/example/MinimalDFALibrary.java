@@ -0,0 +1,259 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * On-disk library of the minimal complete DFAs with a fixed number of states over an alphabet of a fixed size.
+ * The set of these DFAs does not depend on the DFA whose roof is computed, so it is generated once from the
+ * candidates of {@link CanonicalCandidateSpliterator} that are already minimal, written to a binary file per
+ * pair (|alphabet|, |states|) and memory-mapped on later use. The roof then only scans the file instead of
+ * enumerating and minimizing all candidates again.
+ * <p>
+ * Every minimal DFA is stored once, in its canonical breadth-first numbering. A file starts with the header
+ * magic, version, number of symbols and number of states, followed by records consisting of one byte
+ * per transition of the flat transition table and the accepting mask as an int.
+ */
+public final class MinimalDFALibrary {
+    /**
+     * The directory of the default library, unless overridden by the system property {@code dfa.library}.
+     */
+    public static final String DEFAULT_DIRECTORY = "dfa-library";
+
+    private static final int MAGIC = 0x4D444641;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    /**
+     * The largest number of states of a library, so that the accepting mask of a record fits into an int.
+     */
+    private static final int MAX_STATES = Integer.SIZE - 2;
+
+    private static final MinimalDFALibrary DEFAULT =
+            new MinimalDFALibrary(Path.of(System.getProperty("dfa.library", DEFAULT_DIRECTORY)));
+
+    private final Path directory;
+    private final Map<Long, Table> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a library stored in the given directory. Files are generated in the directory when first needed.
+     *
+     * @param directory The directory of the library files.
+     */
+    public MinimalDFALibrary(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the library in the directory given by the system property {@code dfa.library},
+     * or in {@link #DEFAULT_DIRECTORY} of the working directory.
+     *
+     * @return The shared default library.
+     */
+    public static MinimalDFALibrary getDefault() {
+        return DEFAULT;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the minimal DFAs with the given number of states over an alphabet of the given size.
+     * The file is generated if it does not exist yet, and it is mapped into memory only once per library.
+     *
+     * @param symbolCount The number of symbols of the alphabet.
+     * @param stateCount  The number of states of the DFAs.
+     * @return The memory-mapped table of the minimal DFAs.
+     * @throws IllegalArgumentException if the number of states or symbols is out of range.
+     * @throws UncheckedIOException     if the file cannot be generated or read.
+     */
+    public Table table(int symbolCount, int stateCount) {
+        if (stateCount <= 0 || stateCount > MAX_STATES || symbolCount < 0) {
+            throw new IllegalArgumentException("Unsupported library: " + symbolCount + " symbols, " + stateCount + " states");
+        }
+        return tables.computeIfAbsent(((long) symbolCount << Integer.SIZE) | stateCount, key -> {
+            try {
+                Path file = directory.resolve(fileName(symbolCount, stateCount));
+                if (!Files.exists(file)) {
+                    generate(file, symbolCount, stateCount);
+                }
+                return map(file, symbolCount, stateCount);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the name of the library file for the given alphabet size and number of states.
+     *
+     * @param symbolCount The number of symbols of the alphabet.
+     * @param stateCount  The number of states of the DFAs.
+     * @return The file name, e.g. {@code minimal-2-3.dfa}.
+     */
+    static String fileName(int symbolCount, int stateCount) {
+        return "minimal-" + symbolCount + "-" + stateCount + ".dfa";
+    }
+
+    /**
+     * Writes the canonical candidates that are minimal into the given file. The file is written under
+     * a temporary name first and moved into place, so a partially written library is never mapped.
+     *
+     * @param file        The library file.
+     * @param symbolCount The number of symbols of the alphabet.
+     * @param stateCount  The number of states of the DFAs.
+     * @throws IOException if the file cannot be written.
+     */
+    private static void generate(Path file, int symbolCount, int stateCount) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(symbolCount);
+                output.writeInt(stateCount);
+
+                CompactDFA alphabet = new CompactDFA(new String[0], syntheticSymbols(symbolCount),
+                        CompactDFA.NO_STATE, new boolean[0], new int[0]);
+                Iterator<CompactDFA> candidates = Spliterators.iterator(CanonicalCandidateSpliterator.of(alphabet, stateCount));
+                while (candidates.hasNext()) {
+                    CompactDFA candidate = candidates.next();
+                    if (candidate.minimize().getStateCount() != stateCount) {
+                        continue;
+                    }
+                    int acceptMask = 0;
+                    for (int state = 0; state < stateCount; state++) {
+                        for (int symbol = 0; symbol < symbolCount; symbol++) {
+                            output.writeByte(candidate.step(state, symbol));
+                        }
+                        if (candidate.isAccepting(state)) {
+                            acceptMask |= 1 << state;
+                        }
+                    }
+                    output.writeInt(acceptMask);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static Table map(Path file, int symbolCount, int stateCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int recordBytes = stateCount * symbolCount + Integer.BYTES;
+            if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION
+                    || buffer.getInt(2 * Integer.BYTES) != symbolCount || buffer.getInt(3 * Integer.BYTES) != stateCount
+                    || (buffer.limit() - HEADER_BYTES) % recordBytes != 0) {
+                throw new IOException("Corrupted DFA library: " + file);
+            }
+            return new Table(buffer, symbolCount, stateCount, (buffer.limit() - HEADER_BYTES) / recordBytes);
+        }
+    }
+
+    private static String[] syntheticSymbols(int symbolCount) {
+        String[] symbols = new String[symbolCount];
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            symbols[symbol] = String.valueOf(symbol);
+        }
+        return symbols;
+    }
+
+    /**
+     * The memory-mapped minimal DFAs of one library file. Records are decoded on demand with absolute reads,
+     * so a table can be scanned by several threads at once.
+     */
+    public static final class Table {
+        private final ByteBuffer buffer;
+        private final int symbolCount;
+        private final int stateCount;
+        private final int size;
+        private final String[] stateNames;
+
+        private Table(ByteBuffer buffer, int symbolCount, int stateCount, int size) {
+            this.buffer = buffer;
+            this.symbolCount = symbolCount;
+            this.stateCount = stateCount;
+            this.size = size;
+            this.stateNames = new String[stateCount];
+            for (int i = 0; i < stateCount; i++) {
+                stateNames[i] = "q" + i;
+            }
+        }
+
+        /**
+         * Returns the number of minimal DFAs in the table.
+         *
+         * @return The number of records.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Decodes the minimal DFA with the given index over the alphabet of the given DFA.
+         *
+         * @param index The index of the record.
+         * @param dfa   The DFA whose alphabet is used, with as many symbols as the table.
+         * @return The minimal DFA with states q0, q1, ... and q0 as the initial state.
+         */
+        public CompactDFA get(int index, CompactDFA dfa) {
+            return get(index, symbolsOf(dfa));
+        }
+
+        /**
+         * Streams the minimal DFAs of the table over the alphabet of the given DFA.
+         *
+         * @param dfa The DFA whose alphabet is used, with as many symbols as the table.
+         * @return The stream of all minimal DFAs of the table, in the order of the file.
+         */
+        public Stream<CompactDFA> stream(CompactDFA dfa) {
+            String[] symbols = symbolsOf(dfa);
+            return IntStream.range(0, size).mapToObj(index -> get(index, symbols));
+        }
+
+        private String[] symbolsOf(CompactDFA dfa) {
+            if (dfa.getSymbolCount() != symbolCount) {
+                throw new IllegalArgumentException("The library has " + symbolCount + " symbols, not " + dfa.getSymbolCount());
+            }
+            String[] symbols = new String[symbolCount];
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                symbols[symbol] = dfa.getSymbol(symbol);
+            }
+            return symbols;
+        }
+
+        private CompactDFA get(int index, String[] symbols) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int offset = HEADER_BYTES + index * (stateCount * symbolCount + Integer.BYTES);
+            int[] table = new int[stateCount * symbolCount];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = buffer.get(offset + i);
+            }
+            int acceptMask = buffer.getInt(offset + table.length);
+            boolean[] accepting = new boolean[stateCount];
+            for (int state = 0; state < stateCount; state++) {
+                accepting[state] = (acceptMask & (1 << state)) != 0;
+            }
+            return new CompactDFA(stateNames, symbols, 0, accepting, table);
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Engine computing orbits of sets of states of a {@link CompactDFA}, shared by the permutation variants of
+ * the compositeness checks. The orbit of a set U is the smallest family of sets containing U and closed under
+ * taking images by all symbols of the alphabet.
+ * Sets of states are stored as {@code long[]} bitsets of fixed length {@link #words()}, images of whole bytes
+ * of a bitset are precomputed for every symbol and orbits are interned in a primitive open-addressing table.
+ */
+final class OrbitEngine {
+    /**
+     * The largest number of longs spent on the precomputed images, larger automata compute images bit by bit.
+     */
+    private static final long IMAGE_TABLE_LIMIT = 1L << 22;
+
+    /**
+     * Callback notified about the images found during the expansion of an orbit.
+     */
+    interface ImageListener {
+        /**
+         * Called for every set found as an image of a set of the orbit for the first time.
+         *
+         * @param data The array holding the set.
+         * @param offset The offset of the set in the array.
+         */
+        void image(long[] data, int offset);
+    }
+
+    private final CompactDFA dfa;
+    private final int stateCount;
+    private final int symbolCount;
+    private final int words;
+    private final long[] acceptingMask;
+    private final long[][] byteImages;
+    private final SubsetTable orbit;
+    private final long[] image;
+
+    /**
+     * Prepares the engine for the given compact DFA.
+     *
+     * @param dfa The compact DFA whose orbits are computed.
+     */
+    OrbitEngine(CompactDFA dfa) {
+        this.dfa = dfa;
+        this.stateCount = dfa.getStateCount();
+        this.symbolCount = dfa.getSymbolCount();
+        this.words = Math.max(1, (stateCount + 63) >>> 6);
+        this.acceptingMask = new long[words];
+        for (int state = 0; state < stateCount; state++) {
+            if (dfa.isAccepting(state)) {
+                acceptingMask[state >>> 6] |= 1L << state;
+            }
+        }
+        this.orbit = new SubsetTable(words);
+        this.image = new long[words];
+
+        int chunks = (stateCount + 7) >>> 3;
+        if ((long) symbolCount * chunks * 256 * words <= IMAGE_TABLE_LIMIT) {
+            byteImages = new long[symbolCount][chunks * 256 * words];
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                long[] table = byteImages[symbol];
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    int base = chunk * 256 * words;
+                    // The image of a byte is the image of its lowest bit joined with the image of the rest
+                    for (int value = 1; value < 256; value++) {
+                        int lowest = Integer.numberOfTrailingZeros(value);
+                        int rest = base + (value & (value - 1)) * words;
+                        int target = base + value * words;
+                        System.arraycopy(table, rest, table, target, words);
+                        int state = chunk * 8 + lowest;
+                        int nextState = state < stateCount ? dfa.step(state, symbol) : CompactDFA.NO_STATE;
+                        if (nextState != CompactDFA.NO_STATE) {
+                            table[target + (nextState >>> 6)] |= 1L << nextState;
+                        }
+                    }
+                }
+            }
+        } else {
+            byteImages = null;
+        }
+    }
+
+    /**
+     * Returns the number of longs used to store a set of states.
+     *
+     * @return The length of the bitsets of this engine.
+     */
+    int words() {
+        return words;
+    }
+
+    /**
+     * Creates an empty table of sets of states compatible with this engine.
+     *
+     * @return A new empty table.
+     */
+    SubsetTable newTable() {
+        return new SubsetTable(words);
+    }
+
+    /**
+     * Computes the orbit of the given set of states layer by layer, where a layer contains the images of
+     * the sets found in the previous layer. Empty images are skipped. The expansion stops as soon as no
+     * new set is found or the orbit contains at least as many sets as the automaton has states.
+     * The orbit stays available through {@link #orbitContains(int)} and {@link #coveredRejectingStates()}.
+     *
+     * @param U The set of states generating the orbit.
+     * @param listener The callback notified about every set found as an image, may be null.
+     * @return True if the orbit is complete and smaller than the number of states; false otherwise.
+     */
+    boolean expand(long[] U, ImageListener listener) {
+        orbit.clear();
+        orbit.add(U, 0);
+        boolean generatorReached = false;
+        int layerStart = 0;
+        int layerEnd = 1;
+
+        while (true) {
+            boolean added = false;
+            for (int set = layerStart; set < layerEnd; set++) {
+                for (int symbol = 0; symbol < symbolCount; symbol++) {
+                    if (!image(orbit.data(), set * words, symbol, image)) {
+                        continue;
+                    }
+                    int index = orbit.add(image, 0);
+                    if (index >= 0) {
+                        added = true;
+                        if (listener != null) {
+                            listener.image(orbit.data(), index * words);
+                        }
+                    } else if (index == -1 && !generatorReached) {
+                        generatorReached = true;
+                        if (listener != null) {
+                            listener.image(orbit.data(), 0);
+                        }
+                    }
+                }
+            }
+
+            if (!added) {
+                return true;
+            }
+            if (orbit.size() >= stateCount) {
+                return false;
+            }
+            layerStart = layerEnd;
+            layerEnd = orbit.size();
+        }
+    }
+
+    /**
+     * Checks whether some set of the last computed orbit contains the given state.
+     *
+     * @param state The number of the state.
+     * @return True if the state is contained in some set of the orbit; false otherwise.
+     */
+    boolean orbitContains(int state) {
+        long[] data = orbit.data();
+        int word = state >>> 6;
+        long bit = 1L << state;
+        for (int set = 0; set < orbit.size(); set++) {
+            if ((data[set * words + word] & bit) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the union of all sets of the last computed orbit that do not contain any accepting state.
+     *
+     * @return The set of covered rejecting states.
+     */
+    long[] coveredRejectingStates() {
+        long[] covered = new long[words];
+        long[] data = orbit.data();
+        for (int set = 0; set < orbit.size(); set++) {
+            int offset = set * words;
+            boolean rejecting = true;
+            for (int word = 0; word < words && rejecting; word++) {
+                rejecting = (data[offset + word] & acceptingMask[word]) == 0;
+            }
+            if (rejecting) {
+                for (int word = 0; word < words; word++) {
+                    covered[word] |= data[offset + word];
+                }
+            }
+        }
+        return covered;
+    }
+
+    /**
+     * Computes the image of a set of states under a single symbol. Missing transitions are skipped.
+     *
+     * @param data The array holding the set.
+     * @param offset The offset of the set in the array.
+     * @param symbol The number of the symbol.
+     * @param target The array receiving the image.
+     * @return True if the image is not empty; false otherwise.
+     */
+    private boolean image(long[] data, int offset, int symbol, long[] target) {
+        Arrays.fill(target, 0L);
+        if (byteImages != null) {
+            long[] table = byteImages[symbol];
+            for (int word = 0; word < words; word++) {
+                long bits = data[offset + word];
+                for (int shift = 0; bits != 0; shift += 8, bits >>>= 8) {
+                    int value = (int) (bits & 0xFF);
+                    if (value != 0) {
+                        int base = (((word << 3) + (shift >>> 3)) * 256 + value) * words;
+                        for (int i = 0; i < words; i++) {
+                            target[i] |= table[base + i];
+                        }
+                    }
+                }
+            }
+        } else {
+            for (int word = 0; word < words; word++) {
+                for (long bits = data[offset + word]; bits != 0; bits &= bits - 1) {
+                    int state = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    int nextState = dfa.step(state, symbol);
+                    if (nextState != CompactDFA.NO_STATE) {
+                        target[nextState >>> 6] |= 1L << nextState;
+                    }
+                }
+            }
+        }
+        for (long bits : target) {
+            if (bits != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converts a set of state names into a bitset of state numbers.
+     *
+     * @param stateSet The set of state names.
+     * @return The bitset of the corresponding state numbers.
+     */
+    long[] toBits(Set<String> stateSet) {
+        long[] bits = new long[words];
+        for (String state : stateSet) {
+            int index = dfa.indexOfState(state);
+            bits[index >>> 6] |= 1L << index;
+        }
+        return bits;
+    }
+
+    /**
+     * Converts a bitset of state numbers into a set of state names.
+     *
+     * @param data The array holding the bitset.
+     * @param offset The offset of the bitset in the array.
+     * @return The set of the corresponding state names.
+     */
+    Set<String> toStateNames(long[] data, int offset) {
+        Set<String> stateSet = new HashSet<>();
+        for (int word = 0; word < words; word++) {
+            for (long bits = data[offset + word]; bits != 0; bits &= bits - 1) {
+                stateSet.add(dfa.getStateName((word << 6) + Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        return stateSet;
+    }
+
+    /**
+     * Counts the states of a bitset.
+     *
+     * @param bits The bitset.
+     * @return The number of states in the bitset.
+     */
+    static int cardinality(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Set of non-empty bitsets of a fixed length backed by a flat array of the stored bitsets in insertion
+     * order and an open-addressing table of their indices.
+     */
+    static final class SubsetTable {
+        private final int words;
+        private long[] data;
+        private int[] slots;
+        private int size;
+
+        private SubsetTable(int words) {
+            this.words = words;
+            this.data = new long[16 * words];
+            this.slots = new int[32];
+        }
+
+        /**
+         * Returns the array holding the stored bitsets, the i-th bitset starts at offset {@code i * words}.
+         * The array is replaced when the table grows.
+         *
+         * @return The array of stored bitsets.
+         */
+        long[] data() {
+            return data;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Removes all bitsets from the table.
+         */
+        void clear() {
+            if (size > 0) {
+                Arrays.fill(slots, 0);
+                size = 0;
+            }
+        }
+
+        /**
+         * Adds a copy of the bitset to the table.
+         *
+         * @param bits The array holding the bitset.
+         * @param offset The offset of the bitset in the array.
+         * @return The index of the added bitset, or {@code -(index + 1)} of the equal bitset already stored.
+         */
+        int add(long[] bits, int offset) {
+            int slot = find(bits, offset);
+            if (slots[slot] != 0) {
+                return -slots[slot];
+            }
+            if ((size + 1) * words > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            System.arraycopy(bits, offset, data, size * words, words);
+            slots[slot] = ++size;
+            if (size * 2 > slots.length) {
+                rehash();
+            }
+            return size - 1;
+        }
+
+        /**
+         * Checks whether an equal bitset is stored in the table.
+         *
+         * @param bits The array holding the bitset.
+         * @param offset The offset of the bitset in the array.
+         * @return True if the bitset is stored; false otherwise.
+         */
+        boolean contains(long[] bits, int offset) {
+            return slots[find(bits, offset)] != 0;
+        }
+
+        private int find(long[] bits, int offset) {
+            int mask = slots.length - 1;
+            int slot = hash(bits, offset) & mask;
+            while (slots[slot] != 0 && !equalAt(slots[slot] - 1, bits, offset)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private boolean equalAt(int index, long[] bits, int offset) {
+            return Arrays.equals(data, index * words, (index + 1) * words, bits, offset, offset + words);
+        }
+
+        private int hash(long[] bits, int offset) {
+            long hash = 0;
+            for (int i = 0; i < words; i++) {
+                hash = (hash + bits[offset + i]) * 0x9E3779B97F4A7C15L;
+            }
+            return (int) (hash ^ (hash >>> 32));
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int index = 0; index < size; index++) {
+                int slot = hash(data, index * words) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = index + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Breadth-first queue of pairs of states of one DFA that admits every pair at most once per search and is
+ * reused between searches. The pairs are numbered {@code first * |Q| + second} as longs, and the visited pairs
+ * are a bitset over these numbers while it fits into an array, and a hash set of the pair keys otherwise. The
+ * bitset grows with the largest pair visited, and a new search clears only the bits of the pairs queued by the
+ * previous one, so a search costs time only for the pairs it reaches.
+ */
+final class PairQueue {
+    private final int stateCount;
+    private final boolean hashed;
+    private long[] visitedPairs = new long[1];
+    private LongIntMap visitedKeys;
+    private long[] pairs = new long[16];
+    private int head;
+    private int tail;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param stateCount The number of states of the DFA.
+     */
+    PairQueue(int stateCount) {
+        this.stateCount = stateCount;
+        this.hashed = (long) stateCount * stateCount >>> 6 >= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Forgets the pairs of the previous search and queues the first pair of a new one.
+     *
+     * @param first  The first state of the pair.
+     * @param second The second state of the pair.
+     */
+    void start(int first, int second) {
+        if (hashed) {
+            visitedKeys = new LongIntMap(16);
+        } else {
+            for (int i = 0; i < tail; i++) {
+                visitedPairs[word(pairs[i])] = 0L;
+            }
+        }
+        head = 0;
+        tail = 0;
+        offer(first, second);
+    }
+
+    /**
+     * Queues the pair unless it was already queued in this search.
+     *
+     * @param first  The first state of the pair.
+     * @param second The second state of the pair.
+     */
+    void offer(int first, int second) {
+        long pair = CompactDFA.pairKey(first, second);
+        if (hashed) {
+            if (visitedKeys.putIfAbsent(pair, 0) != CompactDFA.NO_STATE) {
+                return;
+            }
+        } else {
+            long number = (long) first * stateCount + second;
+            int word = (int) (number >>> 6);
+            if (word >= visitedPairs.length) {
+                visitedPairs = Arrays.copyOf(visitedPairs, (int) Math.min(Math.max(word + 1L, 2L * visitedPairs.length),
+                        ((long) stateCount * stateCount >>> 6) + 1));
+            } else if ((visitedPairs[word] & (1L << number)) != 0) {
+                return;
+            }
+            visitedPairs[word] |= 1L << number;
+        }
+        if (tail == pairs.length) {
+            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        }
+        pairs[tail++] = pair;
+    }
+
+    boolean isEmpty() {
+        return head == tail;
+    }
+
+    /**
+     * Removes the next pair of the queue.
+     *
+     * @return The key of the pair, see {@link #first(long)} and {@link #second(long)}.
+     */
+    long poll() {
+        return pairs[head++];
+    }
+
+    static int first(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    static int second(long pair) {
+        return (int) pair;
+    }
+
+    private int word(long pair) {
+        return (int) (((long) first(pair) * stateCount + second(pair)) >>> 6);
+    }
+}
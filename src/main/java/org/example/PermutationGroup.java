@@ -0,0 +1,516 @@
+package org.example;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Permutation group on the points 0, 1, ..., n-1 given by generators, such as the transition group of a permutation
+ * DFA generated by the permutations of its letters. A permutation is an int array mapping every point to its image,
+ * and the product {@code g h} applies g first, like reading the word gh.
+ * <p>
+ * The group is represented by a base and a strong generating set computed by the deterministic Schreier-Sims
+ * algorithm. For every level i, the generators fixing the first i base points generate the stabilizer chain
+ * member G(i), and the transversal of level i holds for every point b of the orbit of the i-th base point under G(i)
+ * a permutation of G(i) mapping the base point to b. The order of the group is the product of the orbit lengths,
+ * and a permutation belongs to the group exactly when it can be sifted through the transversals to the identity.
+ */
+public final class PermutationGroup {
+    private final int degree;
+    private final int[][] generators;
+    private final List<Integer> base = new ArrayList<>();
+    private final List<List<int[]>> levelGenerators = new ArrayList<>();
+    private final List<int[][]> transversals = new ArrayList<>();
+
+    /**
+     * Creates the group generated by the given permutations and computes its base and strong generating set.
+     *
+     * @param degree The number of points.
+     * @param generators The generating permutations of the points.
+     * @throws IllegalArgumentException if a generator is not a permutation of the points.
+     */
+    public PermutationGroup(int degree, int[]... generators) {
+        this(degree, new int[0], generators);
+    }
+
+    /**
+     * Creates the group with a base starting with the given points.
+     *
+     * @param degree The number of points.
+     * @param basePrefix The points that start the base.
+     * @param generators The generating permutations of the points.
+     */
+    private PermutationGroup(int degree, int[] basePrefix, int[][] generators) {
+        this.degree = degree;
+        List<int[]> nonIdentity = new ArrayList<>();
+        for (int[] generator : generators) {
+            checkPermutation(degree, generator);
+            if (!isIdentity(generator)) {
+                nonIdentity.add(generator.clone());
+            }
+        }
+        this.generators = nonIdentity.toArray(new int[0][]);
+        for (int point : basePrefix) {
+            addLevel(point);
+        }
+        schreierSims();
+    }
+
+    /**
+     * Creates the transition group of a permutation DFA, generated by the permutations of its letters.
+     *
+     * @param dfa The compact permutation DFA.
+     * @return The transition group acting on the states of the DFA.
+     * @throws IllegalArgumentException if the DFA is not a permutation DFA.
+     */
+    public static PermutationGroup of(CompactDFA dfa) {
+        if (!dfa.isPermutation()) {
+            throw new IllegalArgumentException("The DFA is not a permutation DFA");
+        }
+        int[][] letters = new int[dfa.getSymbolCount()][dfa.getStateCount()];
+        for (int symbol = 0; symbol < letters.length; symbol++) {
+            for (int state = 0; state < dfa.getStateCount(); state++) {
+                letters[symbol][state] = dfa.step(state, symbol);
+            }
+        }
+        return new PermutationGroup(dfa.getStateCount(), letters);
+    }
+
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * Returns the generators of the group without the identity.
+     *
+     * @return Copies of the generators.
+     */
+    public int[][] getGenerators() {
+        int[][] copies = new int[generators.length][];
+        for (int i = 0; i < generators.length; i++) {
+            copies[i] = generators[i].clone();
+        }
+        return copies;
+    }
+
+    /**
+     * Returns the base of the group. Only the identity fixes every base point.
+     *
+     * @return The base points in the order of the stabilizer chain.
+     */
+    public int[] getBase() {
+        return base.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns the strong generating set relative to the base.
+     *
+     * @return Copies of the strong generators, each listed once.
+     */
+    public List<int[]> getStrongGenerators() {
+        List<int[]> strong = new ArrayList<>();
+        for (List<int[]> level : levelGenerators) {
+            for (int[] generator : level) {
+                if (strong.stream().noneMatch(known -> known == generator)) {
+                    strong.add(generator);
+                }
+            }
+        }
+        return strong.stream().map(int[]::clone).toList();
+    }
+
+    /**
+     * Computes the order of the group as the product of the lengths of the basic orbits.
+     *
+     * @return The number of elements of the group.
+     */
+    public BigInteger order() {
+        BigInteger order = BigInteger.ONE;
+        for (int[][] transversal : transversals) {
+            order = order.multiply(BigInteger.valueOf(orbitLength(transversal)));
+        }
+        return order;
+    }
+
+    /**
+     * Checks whether the permutation belongs to the group by sifting it through the stabilizer chain.
+     *
+     * @param permutation The permutation of the points.
+     * @return true if the permutation is an element of the group, false otherwise.
+     */
+    public boolean contains(int[] permutation) {
+        checkPermutation(degree, permutation);
+        Sifted sifted = sift(permutation, 0);
+        return sifted.level == base.size() && isIdentity(sifted.residue);
+    }
+
+    /**
+     * Computes the orbit of the point, i.e. all images of the point under the elements of the group.
+     *
+     * @param point The point.
+     * @return The points of the orbit in increasing order.
+     */
+    public int[] orbit(int point) {
+        int[] orbits = orbits();
+        return IntStream.range(0, degree).filter(other -> orbits[other] == orbits[point]).toArray();
+    }
+
+    /**
+     * Partitions the points into orbits by merging every point with its images under the generators.
+     *
+     * @return The smallest point of the orbit of every point.
+     */
+    public int[] orbits() {
+        int[] parent = IntStream.range(0, degree).toArray();
+        for (int[] generator : generators) {
+            for (int point = 0; point < degree; point++) {
+                union(parent, point, generator[point]);
+            }
+        }
+        int[] smallest = new int[degree];
+        Arrays.fill(smallest, -1);
+        int[] orbits = new int[degree];
+        for (int point = 0; point < degree; point++) {
+            int root = find(parent, point);
+            if (smallest[root] < 0) {
+                smallest[root] = point;
+            }
+            orbits[point] = smallest[root];
+        }
+        return orbits;
+    }
+
+    /**
+     * Checks whether the group has a single orbit.
+     *
+     * @return true if every point is mapped to every other point by some element, false otherwise.
+     */
+    public boolean isTransitive() {
+        int[] orbits = orbits();
+        return Arrays.stream(orbits).allMatch(orbit -> orbit == 0);
+    }
+
+    /**
+     * Computes the stabilizer of the point, the subgroup of elements fixing it. The stabilizer chain is recomputed
+     * with the point as the first base point, so the stabilizer is generated by the strong generators of level 1.
+     *
+     * @param point The point.
+     * @return The point stabilizer.
+     */
+    public PermutationGroup stabilizer(int point) {
+        PermutationGroup rebased = base.isEmpty() || base.get(0) != point
+                ? new PermutationGroup(degree, new int[]{point}, generators) : this;
+        int[][] fixing = rebased.levelGenerators.size() > 1
+                ? rebased.levelGenerators.get(1).toArray(new int[0][]) : new int[0][];
+        return new PermutationGroup(degree, fixing);
+    }
+
+    /**
+     * Checks whether all generators commute, i.e. whether the group is abelian.
+     *
+     * @return true if the group is abelian, false otherwise.
+     */
+    public boolean isAbelian() {
+        for (int i = 0; i < generators.length; i++) {
+            for (int j = i + 1; j < generators.length; j++) {
+                for (int point = 0; point < degree; point++) {
+                    if (generators[j][generators[i][point]] != generators[i][generators[j][point]]) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the group is primitive, i.e. transitive with no block systems except the trivial ones.
+     * The finest block system joining a fixed point with another point depends only on the orbit of the other point
+     * under the stabilizer of the fixed point, so one point per such orbit is checked.
+     *
+     * @return true if the group is primitive, false otherwise.
+     */
+    public boolean isPrimitive() {
+        if (degree <= 2) {
+            return degree == 1 || isTransitive();
+        }
+        if (!isTransitive()) {
+            return false;
+        }
+        int[] suborbits = stabilizer(0).orbits();
+        for (int point = 1; point < degree; point++) {
+            if (suborbits[point] != point) {
+                continue;
+            }
+            int[] blocks = blockSystem(0, point);
+            for (int other = 0; other < degree; other++) {
+                if (blocks[other] != blocks[0]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes the finest block system in which the two given points share a block. The points are merged in
+     * a union-find structure and every merge of two classes is propagated by all generators until the partition
+     * is closed under the group, following Atkinson.
+     *
+     * @param first The first point.
+     * @param second The second point.
+     * @return The representative of the block of every point.
+     */
+    public int[] blockSystem(int first, int second) {
+        int[] parent = IntStream.range(0, degree).toArray();
+        Deque<int[]> pending = new ArrayDeque<>();
+        if (union(parent, first, second)) {
+            pending.add(new int[]{first, second});
+        }
+
+        while (!pending.isEmpty()) {
+            int[] pair = pending.poll();
+            for (int[] generator : generators) {
+                int x = generator[pair[0]];
+                int y = generator[pair[1]];
+                if (union(parent, x, y)) {
+                    pending.add(new int[]{x, y});
+                }
+            }
+        }
+
+        for (int point = 0; point < degree; point++) {
+            parent[point] = find(parent, point);
+        }
+        return parent;
+    }
+
+    //-----------------------------------------------Schreier-Sims------------------------------------------------------
+
+    /**
+     * Result of sifting a permutation: the residue after dividing by the transversal elements and the level
+     * at which it left the stabilizer chain, or the number of levels if it fixes all base points.
+     */
+    private static final class Sifted {
+        private final int[] residue;
+        private final int level;
+
+        private Sifted(int[] residue, int level) {
+            this.residue = residue;
+            this.level = level;
+        }
+    }
+
+    /**
+     * Extends the base and the strong generating set until every Schreier generator of every level sifts
+     * to the identity through the deeper levels.
+     */
+    private void schreierSims() {
+        for (int[] generator : generators) {
+            if (fixesBase(generator, base.size())) {
+                addLevel(movedPoint(generator));
+            }
+        }
+        for (int level = 0; level < base.size(); level++) {
+            for (int[] generator : generators) {
+                if (fixesBase(generator, level)) {
+                    levelGenerators.get(level).add(generator);
+                }
+            }
+            transversals.set(level, transversal(level));
+        }
+
+        int level = base.size() - 1;
+        while (level >= 0) {
+            Sifted sifted = findMissingGenerator(level);
+            if (sifted == null) {
+                level--;
+                continue;
+            }
+            if (sifted.level == base.size()) {
+                addLevel(movedPoint(sifted.residue));
+            }
+            for (int deeper = level + 1; deeper <= sifted.level; deeper++) {
+                levelGenerators.get(deeper).add(sifted.residue);
+                transversals.set(deeper, transversal(deeper));
+            }
+            level = sifted.level;
+        }
+    }
+
+    /**
+     * Searches a Schreier generator of the given level that does not sift to the identity through the deeper levels.
+     *
+     * @param level The level of the stabilizer chain.
+     * @return The sifted Schreier generator, or null if all of them sift to the identity.
+     */
+    private Sifted findMissingGenerator(int level) {
+        int[][] transversal = transversals.get(level);
+        for (int point = 0; point < degree; point++) {
+            if (transversal[point] == null) {
+                continue;
+            }
+            for (int[] generator : levelGenerators.get(level)) {
+                int[] schreier = multiply(multiply(transversal[point], generator), inverse(transversal[generator[point]]));
+                if (isIdentity(schreier)) {
+                    continue;
+                }
+                Sifted sifted = sift(schreier, level + 1);
+                if (sifted.level < base.size() || !isIdentity(sifted.residue)) {
+                    return sifted;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Divides the permutation by the transversal elements of the levels from the given one on.
+     *
+     * @param permutation The permutation fixing the base points before the level.
+     * @param from The first level.
+     * @return The residue and the level where sifting stopped.
+     */
+    private Sifted sift(int[] permutation, int from) {
+        int[] residue = permutation;
+        for (int level = from; level < base.size(); level++) {
+            int image = residue[base.get(level)];
+            int[] coset = transversals.get(level)[image];
+            if (coset == null) {
+                return new Sifted(residue, level);
+            }
+            residue = multiply(residue, inverse(coset));
+        }
+        return new Sifted(residue, base.size());
+    }
+
+    /**
+     * Computes the transversal of the level by a breadth-first search of the orbit of its base point.
+     *
+     * @param level The level of the stabilizer chain.
+     * @return For every point of the basic orbit an element mapping the base point to it, null elsewhere.
+     */
+    private int[][] transversal(int level) {
+        int[][] transversal = new int[degree][];
+        int basePoint = base.get(level);
+        transversal[basePoint] = IntStream.range(0, degree).toArray();
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(basePoint);
+        while (!queue.isEmpty()) {
+            int point = queue.poll();
+            for (int[] generator : levelGenerators.get(level)) {
+                int image = generator[point];
+                if (transversal[image] == null) {
+                    transversal[image] = multiply(transversal[point], generator);
+                    queue.add(image);
+                }
+            }
+        }
+        return transversal;
+    }
+
+    private void addLevel(int point) {
+        base.add(point);
+        levelGenerators.add(new ArrayList<>());
+        int[][] trivial = new int[degree][];
+        trivial[point] = IntStream.range(0, degree).toArray();
+        transversals.add(trivial);
+    }
+
+    private boolean fixesBase(int[] permutation, int levels) {
+        for (int level = 0; level < levels; level++) {
+            if (permutation[base.get(level)] != base.get(level)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int orbitLength(int[][] transversal) {
+        int length = 0;
+        for (int[] coset : transversal) {
+            if (coset != null) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    //-----------------------------------------------Permutations-------------------------------------------------------
+
+    /**
+     * Multiplies two permutations, applying the first one first.
+     *
+     * @param first The permutation applied first.
+     * @param second The permutation applied second.
+     * @return The product mapping every point p to {@code second[first[p]]}.
+     */
+    static int[] multiply(int[] first, int[] second) {
+        int[] product = new int[first.length];
+        for (int point = 0; point < first.length; point++) {
+            product[point] = second[first[point]];
+        }
+        return product;
+    }
+
+    static int[] inverse(int[] permutation) {
+        int[] inverse = new int[permutation.length];
+        for (int point = 0; point < permutation.length; point++) {
+            inverse[permutation[point]] = point;
+        }
+        return inverse;
+    }
+
+    private static boolean isIdentity(int[] permutation) {
+        for (int point = 0; point < permutation.length; point++) {
+            if (permutation[point] != point) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int movedPoint(int[] permutation) {
+        for (int point = 0; point < permutation.length; point++) {
+            if (permutation[point] != point) {
+                return point;
+            }
+        }
+        throw new IllegalStateException("The identity moves no point");
+    }
+
+    private static void checkPermutation(int degree, int[] permutation) {
+        if (permutation.length != degree) {
+            throw new IllegalArgumentException("A permutation of " + degree + " points has " + permutation.length + " images");
+        }
+        boolean[] seen = new boolean[degree];
+        for (int image : permutation) {
+            if (image < 0 || image >= degree || seen[image]) {
+                throw new IllegalArgumentException("Not a permutation: " + Arrays.toString(permutation));
+            }
+            seen[image] = true;
+        }
+    }
+
+    private static int find(int[] parent, int point) {
+        while (parent[point] != point) {
+            parent[point] = parent[parent[point]];
+            point = parent[point];
+        }
+        return point;
+    }
+
+    private static boolean union(int[] parent, int x, int y) {
+        int rootX = find(parent, x);
+        int rootY = find(parent, y);
+        if (rootX == rootY) {
+            return false;
+        }
+        parent[rootX] = rootY;
+        return true;
+    }
+}
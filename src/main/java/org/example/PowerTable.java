@@ -0,0 +1,202 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed powers of the letters of a DFA. The transition function of a letter a maps every state to one state,
+ * so the states reached by a, aa, aaa, ... from a state q form a path that ends in a cycle. The table stores the
+ * cycles of every letter one after another, and for every state and letter the cycle that is reached, the number of
+ * letters needed to reach it and the offset of q within it. The state {@code δ(q, a^k)} is then read from the cycle
+ * at position {@code (offset + k) mod length} whenever k is at least that number of letters, which covers every
+ * exponent of a permutation letter, whose states all lie on cycles. Shorter exponents follow the path letter by
+ * letter.
+ * <p>
+ * Missing transitions lead to an additional absorbing state, which is reported as {@link CompactDFA#NO_STATE}.
+ * A word given by an exponent vector, such as a word of a commutative automaton, is thus evaluated in
+ * O(|alphabet|) steps for a permutation automaton instead of one step per letter of the word.
+ */
+public final class PowerTable {
+    private final CompactDFA dfa;
+    private final int stateCount;
+    /**
+     * The cycles of all letters, one after another. The absorbing state is stored as {@link CompactDFA#NO_STATE}.
+     */
+    private final int[] cycles;
+    /**
+     * For the index {@code symbol * (|states| + 1) + state}: the start of the reached cycle in {@link #cycles}.
+     */
+    private final int[] cycleStart;
+    private final int[] cycleLength;
+    /**
+     * The position within the reached cycle taken as the position of the state itself, so that
+     * {@code δ(q, a^k)} is at position {@code (offset + k) mod length} for k at least the depth of the state.
+     */
+    private final int[] offset;
+    /**
+     * The number of letters needed to reach the cycle, 0 for the states on the cycle.
+     */
+    private final int[] depth;
+
+    private PowerTable(CompactDFA dfa, int[] cycles, int[] cycleStart, int[] cycleLength, int[] offset, int[] depth) {
+        this.dfa = dfa;
+        this.stateCount = dfa.getStateCount();
+        this.cycles = cycles;
+        this.cycleStart = cycleStart;
+        this.cycleLength = cycleLength;
+        this.offset = offset;
+        this.depth = depth;
+    }
+
+    /**
+     * Decomposes the transition function of every letter of the DFA into paths ending in cycles.
+     *
+     * @param dfa The compact DFA.
+     * @return The power table of the letters of the DFA.
+     */
+    public static PowerTable of(CompactDFA dfa) {
+        int stateCount = dfa.getStateCount();
+        int symbolCount = dfa.getSymbolCount();
+        // The state with number stateCount is the absorbing state that replaces missing transitions
+        int extended = stateCount + 1;
+        int[] cycles = new int[symbolCount * extended];
+        int[] cycleStart = new int[symbolCount * extended];
+        int[] cycleLength = new int[symbolCount * extended];
+        int[] offset = new int[symbolCount * extended];
+        int[] depth = new int[symbolCount * extended];
+
+        int cycleCount = 0;
+        int[] path = new int[extended];
+        int[] positionOnPath = new int[extended];
+        boolean[] done = new boolean[extended];
+        for (int symbol = 0; symbol < symbolCount; symbol++) {
+            int base = symbol * extended;
+            Arrays.fill(positionOnPath, -1);
+            Arrays.fill(done, false);
+            for (int start = 0; start < extended; start++) {
+                if (done[start]) {
+                    continue;
+                }
+                int length = 0;
+                int state = start;
+                while (!done[state] && positionOnPath[state] < 0) {
+                    positionOnPath[state] = length;
+                    path[length++] = state;
+                    state = successor(dfa, state, symbol);
+                }
+
+                int tail = length;
+                if (!done[state]) {
+                    // The path closed a new cycle starting at its state with position positionOnPath[state]
+                    tail = positionOnPath[state];
+                    for (int i = tail; i < length; i++) {
+                        int cycleState = path[i];
+                        cycles[cycleCount + i - tail] = cycleState == stateCount ? CompactDFA.NO_STATE : cycleState;
+                        cycleStart[base + cycleState] = cycleCount;
+                        cycleLength[base + cycleState] = length - tail;
+                        offset[base + cycleState] = i - tail;
+                        depth[base + cycleState] = 0;
+                        done[cycleState] = true;
+                    }
+                    cycleCount += length - tail;
+                }
+                for (int i = tail - 1; i >= 0; i--) {
+                    int tailState = path[i];
+                    int next = base + successor(dfa, tailState, symbol);
+                    cycleStart[base + tailState] = cycleStart[next];
+                    cycleLength[base + tailState] = cycleLength[next];
+                    offset[base + tailState] = Math.floorMod(offset[next] - 1, cycleLength[next]);
+                    depth[base + tailState] = depth[next] + 1;
+                    done[tailState] = true;
+                }
+                for (int i = 0; i < length; i++) {
+                    positionOnPath[path[i]] = -1;
+                }
+            }
+        }
+        return new PowerTable(dfa, Arrays.copyOf(cycles, cycleCount), cycleStart, cycleLength, offset, depth);
+    }
+
+    /**
+     * Computes {@code δ(q, a^k)}.
+     *
+     * @param state    The state q.
+     * @param symbol   The number of the letter a.
+     * @param exponent The non-negative exponent k.
+     * @return The state reached, or {@link CompactDFA#NO_STATE} if a transition is missing on the way.
+     */
+    public int power(int state, int symbol, long exponent) {
+        if (state == CompactDFA.NO_STATE) {
+            return CompactDFA.NO_STATE;
+        }
+        int index = symbol * (stateCount + 1) + state;
+        if (exponent < depth[index]) {
+            for (long i = 0; i < exponent && state != CompactDFA.NO_STATE; i++) {
+                state = dfa.step(state, symbol);
+            }
+            return state;
+        }
+        return cycles[cycleStart[index] + (int) ((offset[index] + exponent % cycleLength[index]) % cycleLength[index])];
+    }
+
+    /**
+     * Computes the state reached from the given state by a word with the given exponents of the letters,
+     * taking the letters in the order of their numbers.
+     *
+     * @param state     The state.
+     * @param exponents The non-negative exponent of every letter.
+     * @return The state reached, or {@link CompactDFA#NO_STATE} if a transition is missing on the way.
+     */
+    public int apply(int state, int[] exponents) {
+        for (int symbol = 0; symbol < exponents.length && state != CompactDFA.NO_STATE; symbol++) {
+            state = power(state, symbol, exponents[symbol]);
+        }
+        return state;
+    }
+
+    /**
+     * Computes the state reached from the given state by a word with the given exponents of the letters,
+     * taking the letters in the order of their numbers.
+     *
+     * @param state     The state.
+     * @param exponents The non-negative exponent of every letter.
+     * @return The state reached, or {@link CompactDFA#NO_STATE} if a transition is missing on the way.
+     */
+    public int apply(int state, long[] exponents) {
+        for (int symbol = 0; symbol < exponents.length && state != CompactDFA.NO_STATE; symbol++) {
+            state = power(state, symbol, exponents[symbol]);
+        }
+        return state;
+    }
+
+    /**
+     * Returns the length of the cycle of the letter reached from the given state. For a permutation letter,
+     * it is the length of the cycle of the state, the smallest positive k with {@code δ(q, a^k) = q}.
+     *
+     * @param state  The state.
+     * @param symbol The number of the letter.
+     * @return The length of the cycle.
+     */
+    public int cycleLength(int state, int symbol) {
+        return cycleLength[symbol * (stateCount + 1) + state];
+    }
+
+    /**
+     * Returns the number of letters needed to reach the cycle of the letter from the given state, which is 0 for
+     * every state of a permutation letter.
+     *
+     * @param state  The state.
+     * @param symbol The number of the letter.
+     * @return The length of the path to the cycle.
+     */
+    public int depth(int state, int symbol) {
+        return depth[symbol * (stateCount + 1) + state];
+    }
+
+    private static int successor(CompactDFA dfa, int state, int symbol) {
+        if (state == dfa.getStateCount()) {
+            return state;
+        }
+        int nextState = dfa.step(state, symbol);
+        return nextState == CompactDFA.NO_STATE ? dfa.getStateCount() : nextState;
+    }
+}
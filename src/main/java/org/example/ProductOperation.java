@@ -0,0 +1,28 @@
+package org.example;
+
+/**
+ * Boolean operation combining the languages of two DFAs in a product construction.
+ * The operation decides whether a pair of states is accepting from the acceptance of its components.
+ */
+public enum ProductOperation {
+    INTERSECTION,
+    UNION,
+    DIFFERENCE,
+    SYMMETRIC_DIFFERENCE;
+
+    /**
+     * Decides whether a pair of states is accepting.
+     *
+     * @param first  Whether the state of the first DFA is accepting.
+     * @param second Whether the state of the second DFA is accepting.
+     * @return true if the pair is accepting under this operation, false otherwise.
+     */
+    public boolean accepts(boolean first, boolean second) {
+        return switch (this) {
+            case INTERSECTION -> first && second;
+            case UNION -> first || second;
+            case DIFFERENCE -> first && !second;
+            case SYMMETRIC_DIFFERENCE -> first != second;
+        };
+    }
+}
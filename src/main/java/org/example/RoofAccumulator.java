@@ -0,0 +1,96 @@
+package org.example;
+
+/**
+ * Running intersection of the candidate DFAs whose language contains the language of a DFA.
+ * Candidates are folded into a minimized roof one by one, and candidates whose language already
+ * contains the roof are skipped, since they cannot change it.
+ * <p>
+ * The accumulator is thread-safe. The tests of a candidate run without locking against the latest
+ * published roof, and only the folding itself is synchronized. Once the search may stop, the accumulator
+ * is cancelled and refuses further candidates, so that parallel workers stop cooperatively.
+ */
+final class RoofAccumulator {
+    private final CompactDFA language;
+    private final boolean stopAtLanguage;
+    private volatile CompactDFA roof;
+    private volatile boolean cancelled;
+
+    /**
+     * Creates an empty accumulator.
+     *
+     * @param language The compact DFA whose roof is computed.
+     * @param stopAtLanguage Whether the search may stop once the roof equals the language of the DFA.
+     */
+    RoofAccumulator(CompactDFA language, boolean stopAtLanguage) {
+        this.language = language;
+        this.stopAtLanguage = stopAtLanguage;
+    }
+
+    /**
+     * Folds the candidate into the roof if its language contains the language of the DFA.
+     *
+     * @param candidate The candidate DFA over the alphabet of the DFA.
+     * @return true if the search may stop, i.e. the roof equals the language of the DFA and early exit
+     * was requested, false otherwise.
+     */
+    boolean add(CompactDFA candidate) {
+        if (cancelled) {
+            return true;
+        }
+        if (!language.isSubsetOf(candidate)) {
+            return false;
+        }
+        return addIncluded(candidate);
+    }
+
+    /**
+     * Folds the candidate into the roof, provided it is already known that its language contains
+     * the language of the DFA.
+     *
+     * @param candidate The candidate DFA whose language contains the language of the DFA.
+     * @return true if the search may stop, false otherwise.
+     */
+    boolean addIncluded(CompactDFA candidate) {
+        if (cancelled) {
+            return true;
+        }
+        if (isSubsumed(candidate)) {
+            return false;
+        }
+        synchronized (this) {
+            if (cancelled || isSubsumed(candidate)) {
+                return cancelled;
+            }
+            CompactDFA current = roof;
+            current = current == null ? candidate.minimize() : CompactDFA.product(current, candidate).minimize();
+            roof = current;
+            if (stopAtLanguage && current.isSubsetOf(language)) {
+                cancelled = true;
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * Checks whether the search was stopped because the roof equals the language of the DFA.
+     *
+     * @return true if no further candidate can change the result, false otherwise.
+     */
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the current roof.
+     *
+     * @return The minimal DFA of the roof, or null if no candidate was folded in.
+     */
+    CompactDFA roof() {
+        return roof;
+    }
+
+    private boolean isSubsumed(CompactDFA candidate) {
+        CompactDFA current = roof;
+        return current != null && current.isSubsetOf(candidate);
+    }
+}
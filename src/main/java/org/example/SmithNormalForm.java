@@ -0,0 +1,269 @@
+package org.example;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Smith normal form of a full-rank lattice of integer relations, i.e. the invariant factor decomposition of the
+ * finite abelian group {@code Z^k / L}. The lattice is given by generating relations and a bound m with
+ * {@code m Z^k} contained in L, such as the order of the group. The generators are first reduced to a Hermite normal
+ * form basis one relation at a time, which keeps every entry between 0 and m. The basis is then diagonalized by row
+ * and column operations to {@code diag(d_1, ..., d_k)} with every d_i dividing the next one, so that
+ * {@code Z^k / L} is the direct sum of the cyclic groups {@code Z / d_i}. The column operations are tracked, and
+ * the i-th row of the inverse of the column transformation is the exponent vector of a generator of the i-th
+ * cyclic factor.
+ */
+final class SmithNormalForm {
+    private final long[] invariantFactors;
+    private final BigInteger[][] generators;
+
+    private SmithNormalForm(long[] invariantFactors, BigInteger[][] generators) {
+        this.invariantFactors = invariantFactors;
+        this.generators = generators;
+    }
+
+    /**
+     * Computes the Smith normal form of the lattice generated by the relations and by m times the unit vectors.
+     *
+     * @param relations The generating relations, each of the given length.
+     * @param columns The number of generators of the group, the length of the relations.
+     * @param bound A positive multiple m of the exponent of the group.
+     * @return The Smith normal form of the lattice.
+     */
+    static SmithNormalForm of(List<long[]> relations, int columns, long bound) {
+        BigInteger[][] basis = new BigInteger[columns][columns];
+        for (int i = 0; i < columns; i++) {
+            for (int j = 0; j < columns; j++) {
+                basis[i][j] = i == j ? BigInteger.valueOf(bound) : BigInteger.ZERO;
+            }
+        }
+        for (long[] relation : relations) {
+            BigInteger[] row = new BigInteger[columns];
+            for (int j = 0; j < columns; j++) {
+                row[j] = BigInteger.valueOf(relation[j]);
+            }
+            insert(basis, row);
+        }
+        return diagonalize(basis);
+    }
+
+    /**
+     * Returns the invariant factors d_1 | d_2 | ... | d_k of the group, factors equal to 1 included.
+     *
+     * @return The diagonal of the Smith normal form.
+     */
+    long[] invariantFactors() {
+        return invariantFactors.clone();
+    }
+
+    /**
+     * Returns the exponent vector of the generator of the i-th cyclic factor. Adding the vector to itself d_i times
+     * gives a relation.
+     *
+     * @param factor The index of the cyclic factor.
+     * @param moduli The exponent of every generator of the group, the vector is reduced modulo them.
+     * @return The non-negative exponents of the generators of the group.
+     */
+    long[] generator(int factor, long[] moduli) {
+        long[] exponents = new long[generators[factor].length];
+        for (int j = 0; j < exponents.length; j++) {
+            exponents[j] = generators[factor][j].mod(BigInteger.valueOf(moduli[j])).longValueExact();
+        }
+        return exponents;
+    }
+
+    /**
+     * Adds a relation to an upper triangular Hermite basis with positive diagonal. The relation is eliminated
+     * column by column by unimodular combinations with the basis rows given by the extended Euclidean algorithm,
+     * and the off-diagonal entries are afterwards reduced modulo the diagonal entries below them.
+     *
+     * @param basis The Hermite basis, modified in place.
+     * @param row The relation, destroyed by the elimination.
+     */
+    private static void insert(BigInteger[][] basis, BigInteger[] row) {
+        int columns = row.length;
+        for (int j = 0; j < columns; j++) {
+            if (row[j].signum() == 0) {
+                continue;
+            }
+            BigInteger pivot = basis[j][j];
+            BigInteger[] euclid = extendedGcd(pivot, row[j]);
+            BigInteger gcd = euclid[0];
+            BigInteger pivotFactor = pivot.divide(gcd);
+            BigInteger rowFactor = row[j].divide(gcd);
+            for (int c = j; c < columns; c++) {
+                BigInteger combined = euclid[1].multiply(basis[j][c]).add(euclid[2].multiply(row[c]));
+                row[c] = pivotFactor.multiply(row[c]).subtract(rowFactor.multiply(basis[j][c]));
+                basis[j][c] = combined;
+            }
+        }
+        for (int i = columns - 1; i >= 0; i--) {
+            for (int j = i + 1; j < columns; j++) {
+                BigInteger quotient = floorDiv(basis[i][j], basis[j][j]);
+                if (quotient.signum() != 0) {
+                    for (int c = j; c < columns; c++) {
+                        basis[i][c] = basis[i][c].subtract(quotient.multiply(basis[j][c]));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Diagonalizes the square full-rank matrix by row and column operations, tracking the inverse of the column
+     * transformation. The smallest non-zero entry of the remaining block is moved to the pivot, its row and column
+     * are cleared by division with remainder, and an entry not divisible by the pivot is added to the pivot row.
+     *
+     * @param matrix The matrix, modified in place.
+     * @return The Smith normal form.
+     */
+    private static SmithNormalForm diagonalize(BigInteger[][] matrix) {
+        int size = matrix.length;
+        BigInteger[][] inverse = new BigInteger[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                inverse[i][j] = i == j ? BigInteger.ONE : BigInteger.ZERO;
+            }
+        }
+
+        for (int t = 0; t < size; t++) {
+            while (true) {
+                int[] smallest = smallestEntry(matrix, t);
+                if (smallest == null) {
+                    break;
+                }
+                swapRows(matrix, t, smallest[0]);
+                swapColumns(matrix, inverse, t, smallest[1]);
+
+                boolean cleared = true;
+                for (int i = t + 1; i < size; i++) {
+                    BigInteger quotient = matrix[i][t].divide(matrix[t][t]);
+                    for (int c = t; c < size; c++) {
+                        matrix[i][c] = matrix[i][c].subtract(quotient.multiply(matrix[t][c]));
+                    }
+                    cleared &= matrix[i][t].signum() == 0;
+                }
+                for (int j = t + 1; j < size; j++) {
+                    BigInteger quotient = matrix[t][j].divide(matrix[t][t]);
+                    addColumn(matrix, inverse, j, t, quotient.negate());
+                    cleared &= matrix[t][j].signum() == 0;
+                }
+                if (!cleared) {
+                    continue;
+                }
+
+                int[] indivisible = indivisibleEntry(matrix, t);
+                if (indivisible == null) {
+                    break;
+                }
+                for (int c = t; c < size; c++) {
+                    matrix[t][c] = matrix[t][c].add(matrix[indivisible[0]][c]);
+                }
+            }
+            if (matrix[t][t].signum() < 0) {
+                for (int c = t; c < size; c++) {
+                    matrix[t][c] = matrix[t][c].negate();
+                }
+            }
+        }
+
+        long[] diagonal = new long[size];
+        for (int t = 0; t < size; t++) {
+            diagonal[t] = matrix[t][t].longValueExact();
+        }
+        return new SmithNormalForm(diagonal, inverse);
+    }
+
+    private static int[] smallestEntry(BigInteger[][] matrix, int from) {
+        int[] smallest = null;
+        for (int i = from; i < matrix.length; i++) {
+            for (int j = from; j < matrix.length; j++) {
+                if (matrix[i][j].signum() != 0
+                        && (smallest == null || matrix[i][j].abs().compareTo(matrix[smallest[0]][smallest[1]].abs()) < 0)) {
+                    smallest = new int[]{i, j};
+                }
+            }
+        }
+        return smallest;
+    }
+
+    private static int[] indivisibleEntry(BigInteger[][] matrix, int pivot) {
+        for (int i = pivot + 1; i < matrix.length; i++) {
+            for (int j = pivot + 1; j < matrix.length; j++) {
+                if (matrix[i][j].mod(matrix[pivot][pivot].abs()).signum() != 0) {
+                    return new int[]{i, j};
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void swapRows(BigInteger[][] matrix, int first, int second) {
+        BigInteger[] row = matrix[first];
+        matrix[first] = matrix[second];
+        matrix[second] = row;
+    }
+
+    /**
+     * Swaps two columns of the matrix, which swaps the corresponding rows of the inverse transformation.
+     */
+    private static void swapColumns(BigInteger[][] matrix, BigInteger[][] inverse, int first, int second) {
+        for (BigInteger[] row : matrix) {
+            BigInteger entry = row[first];
+            row[first] = row[second];
+            row[second] = entry;
+        }
+        swapRows(inverse, first, second);
+    }
+
+    /**
+     * Adds a multiple of the source column to the target column, which subtracts the multiple of the target row
+     * from the source row of the inverse transformation.
+     */
+    private static void addColumn(BigInteger[][] matrix, BigInteger[][] inverse, int target, int source, BigInteger factor) {
+        if (factor.signum() == 0) {
+            return;
+        }
+        for (BigInteger[] row : matrix) {
+            row[target] = row[target].add(factor.multiply(row[source]));
+        }
+        for (int c = 0; c < inverse[source].length; c++) {
+            inverse[source][c] = inverse[source][c].subtract(factor.multiply(inverse[target][c]));
+        }
+    }
+
+    /**
+     * Computes g = gcd(a, b) with g > 0 and Bezout coefficients x, y such that ax + by = g.
+     *
+     * @return The array {g, x, y}.
+     */
+    private static BigInteger[] extendedGcd(BigInteger a, BigInteger b) {
+        BigInteger oldR = a, r = b;
+        BigInteger oldX = BigInteger.ONE, x = BigInteger.ZERO;
+        BigInteger oldY = BigInteger.ZERO, y = BigInteger.ONE;
+        while (r.signum() != 0) {
+            BigInteger quotient = oldR.divide(r);
+            BigInteger next = oldR.subtract(quotient.multiply(r));
+            oldR = r;
+            r = next;
+            next = oldX.subtract(quotient.multiply(x));
+            oldX = x;
+            x = next;
+            next = oldY.subtract(quotient.multiply(y));
+            oldY = y;
+            y = next;
+        }
+        if (oldR.signum() < 0) {
+            return new BigInteger[]{oldR.negate(), oldX.negate(), oldY.negate()};
+        }
+        return new BigInteger[]{oldR, oldX, oldY};
+    }
+
+    private static BigInteger floorDiv(BigInteger dividend, BigInteger divisor) {
+        BigInteger[] division = dividend.divideAndRemainder(divisor);
+        if (division[1].signum() != 0 && (division[1].signum() < 0) != (divisor.signum() < 0)) {
+            return division[0].subtract(BigInteger.ONE);
+        }
+        return division[0];
+    }
+}
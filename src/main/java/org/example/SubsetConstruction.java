@@ -0,0 +1,259 @@
+package org.example;
+
+import java.util.*;
+
+/**
+ * Subset construction converting an {@link Automaton} with epsilon transitions into a {@link CompactDFA}.
+ * States of the automaton are interned to integers in the natural order of their names, subsets are
+ * represented as sorted int arrays and interned in a hash table, and new subsets are processed in FIFO order.
+ * Every subset is named once by the sorted, comma-separated names of its states.
+ */
+public final class SubsetConstruction {
+    private static final String EPSILON = "";
+
+    private final String[] stateNames;
+    private final String[] symbols;
+    private final boolean[] accepting;
+    private final int[][] closures;
+    private final int[][] moves;
+
+    private final int[] stamp;
+    private int currentStamp;
+
+    private SubsetConstruction(Automaton automaton) {
+        SortedSet<String> names = new TreeSet<>(automaton.getStates());
+        SortedSet<String> letters = new TreeSet<>(automaton.getAlphabet());
+        letters.remove(EPSILON);
+        names.add(automaton.getInitialState());
+        for (Map.Entry<Map<String, String>, Set<String>> entry : automaton.getTransitionFunction().entrySet()) {
+            names.add(entry.getKey().keySet().iterator().next());
+            names.addAll(entry.getValue());
+            String symbol = entry.getKey().values().iterator().next();
+            if (!EPSILON.equals(symbol)) {
+                letters.add(symbol);
+            }
+        }
+
+        stateNames = names.toArray(new String[0]);
+        symbols = letters.toArray(new String[0]);
+        Map<String, Integer> stateIndex = new HashMap<>();
+        for (int i = 0; i < stateNames.length; i++) {
+            stateIndex.put(stateNames[i], i);
+        }
+        Map<String, Integer> symbolIndex = new HashMap<>();
+        for (int i = 0; i < symbols.length; i++) {
+            symbolIndex.put(symbols[i], i);
+        }
+
+        accepting = new boolean[stateNames.length];
+        for (String state : automaton.getAcceptStates()) {
+            Integer index = stateIndex.get(state);
+            if (index != null) {
+                accepting[index] = true;
+            }
+        }
+
+        int[][] epsilonSuccessors = new int[stateNames.length][];
+        int[][] successors = new int[stateNames.length * symbols.length][];
+        for (Map.Entry<Map<String, String>, Set<String>> entry : automaton.getTransitionFunction().entrySet()) {
+            int from = stateIndex.get(entry.getKey().keySet().iterator().next());
+            String symbol = entry.getKey().values().iterator().next();
+            int[] targets = entry.getValue().stream().mapToInt(stateIndex::get).toArray();
+            if (EPSILON.equals(symbol)) {
+                epsilonSuccessors[from] = targets;
+            } else {
+                successors[from * symbols.length + symbolIndex.get(symbol)] = targets;
+            }
+        }
+
+        stamp = new int[stateNames.length];
+        closures = new int[stateNames.length][];
+        for (int state = 0; state < stateNames.length; state++) {
+            closures[state] = closure(epsilonSuccessors, state);
+        }
+
+        // Successors of every single state on every symbol, already closed under epsilon transitions
+        moves = new int[successors.length][];
+        for (int i = 0; i < successors.length; i++) {
+            moves[i] = successors[i] != null ? union(closures, successors[i]) : new int[0];
+        }
+    }
+
+    /**
+     * Converts the automaton into a DFA using the subset construction. Only subsets reachable from
+     * the epsilon closure of the initial state are created and the empty subset is never created,
+     * so transitions leading to it are left undefined.
+     *
+     * @param automaton The automaton to convert.
+     * @return The compact DFA whose states are the reachable subsets of the automaton.
+     */
+    public static CompactDFA determinize(Automaton automaton) {
+        return new SubsetConstruction(automaton).run(automaton.getInitialState());
+    }
+
+    private CompactDFA run(String initialState) {
+        int symbolCount = symbols.length;
+        Map<Subset, Integer> index = new HashMap<>();
+        List<int[]> subsets = new ArrayList<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        int[] table = new int[16 * symbolCount];
+
+        int[] initial = closures[Arrays.binarySearch(stateNames, initialState)];
+        index.put(new Subset(initial), 0);
+        subsets.add(initial);
+        queue.add(0);
+
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            int[] subset = subsets.get(current);
+            for (int symbol = 0; symbol < symbolCount; symbol++) {
+                int[][] targets = new int[subset.length][];
+                for (int i = 0; i < subset.length; i++) {
+                    targets[i] = moves[subset[i] * symbolCount + symbol];
+                }
+                int[] next = union(targets);
+
+                int target = CompactDFA.NO_STATE;
+                if (next.length > 0) {
+                    Subset key = new Subset(next);
+                    Integer known = index.get(key);
+                    if (known == null) {
+                        known = subsets.size();
+                        index.put(key, known);
+                        subsets.add(next);
+                        queue.add(known);
+                    }
+                    target = known;
+                }
+                if ((current + 1) * symbolCount > table.length) {
+                    table = Arrays.copyOf(table, table.length * 2);
+                }
+                table[current * symbolCount + symbol] = target;
+            }
+        }
+
+        int count = subsets.size();
+        String[] names = new String[count];
+        boolean[] acceptingSubsets = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            StringJoiner name = new StringJoiner(",");
+            for (int state : subsets.get(i)) {
+                name.add(stateNames[state]);
+                acceptingSubsets[i] |= accepting[state];
+            }
+            names[i] = name.toString();
+        }
+        return new CompactDFA(names, symbols, 0, acceptingSubsets, Arrays.copyOf(table, count * symbolCount));
+    }
+
+    /**
+     * Computes the epsilon closure of a single state.
+     *
+     * @param epsilonSuccessors The epsilon successors of every state, or null if there are none.
+     * @param state The state whose closure is computed.
+     * @return The sorted states reachable from the state by epsilon transitions, including the state itself.
+     */
+    private int[] closure(int[][] epsilonSuccessors, int state) {
+        currentStamp++;
+        int[] found = new int[stateNames.length];
+        int count = 0;
+        found[count++] = state;
+        stamp[state] = currentStamp;
+        for (int i = 0; i < count; i++) {
+            int[] next = epsilonSuccessors[found[i]];
+            if (next != null) {
+                for (int target : next) {
+                    if (stamp[target] != currentStamp) {
+                        stamp[target] = currentStamp;
+                        found[count++] = target;
+                    }
+                }
+            }
+        }
+        int[] result = Arrays.copyOf(found, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * Computes the union of the closures of the given states.
+     *
+     * @param closures The sorted closure of every state.
+     * @param states The states whose closures are joined.
+     * @return The sorted union.
+     */
+    private int[] union(int[][] closures, int[] states) {
+        int[][] parts = new int[states.length][];
+        for (int i = 0; i < states.length; i++) {
+            parts[i] = closures[states[i]];
+        }
+        return union(parts);
+    }
+
+    /**
+     * Computes the union of sorted sets of states.
+     *
+     * @param parts The sorted sets to join.
+     * @return The sorted union without duplicates.
+     */
+    private int[] union(int[][] parts) {
+        if (parts.length == 1) {
+            return parts[0];
+        }
+        currentStamp++;
+        int count = 0;
+        for (int[] part : parts) {
+            for (int state : part) {
+                if (stamp[state] != currentStamp) {
+                    stamp[state] = currentStamp;
+                    count++;
+                }
+            }
+        }
+        // Small unions are collected from the parts and sorted, large ones by scanning all states in order
+        int[] result = new int[count];
+        if (count * 8 < stateNames.length) {
+            int i = 0;
+            for (int[] part : parts) {
+                for (int state : part) {
+                    if (stamp[state] == currentStamp) {
+                        stamp[state] = currentStamp - 1;
+                        result[i++] = state;
+                    }
+                }
+            }
+            Arrays.sort(result);
+        } else {
+            int i = 0;
+            for (int state = 0; i < count; state++) {
+                if (stamp[state] == currentStamp) {
+                    result[i++] = state;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Wrapper giving a sorted int array value semantics, so that subsets can be used as hash keys.
+     */
+    private static final class Subset {
+        private final int[] states;
+        private final int hash;
+
+        private Subset(int[] states) {
+            this.states = states;
+            this.hash = Arrays.hashCode(states);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Subset && Arrays.equals(states, ((Subset) o).states);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
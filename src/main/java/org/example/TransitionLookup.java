@@ -0,0 +1,78 @@
+package org.example;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allocation-free lookup in a transition function keyed by single-entry {@code Map.of(state, symbol)} maps.
+ * Instead of allocating a key for every lookup, the map is probed with a reusable key of the calling thread that
+ * has the hash code and equality of {@code Map.of(state, symbol)}. The lookup always reads the map itself, so
+ * transitions changed in place are seen immediately and there is nothing to keep up to date.
+ */
+final class TransitionLookup {
+
+    /**
+     * Reusable single-entry map equal to {@code Map.of(state, symbol)} for the state and symbol it was set to.
+     */
+    private static final class Probe extends AbstractMap<String, String> {
+        private String state;
+        private String symbol;
+
+        private Probe set(String state, String symbol) {
+            this.state = state;
+            this.symbol = symbol;
+            return this;
+        }
+
+        @Override
+        public String get(Object key) {
+            return state.equals(key) ? symbol : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return state.equals(key);
+        }
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return Set.of(new SimpleImmutableEntry<>(state, symbol));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map<?, ?> other && other.size() == 1 && symbol.equals(other.get(state));
+        }
+
+        @Override
+        public int hashCode() {
+            return state.hashCode() ^ symbol.hashCode();
+        }
+    }
+
+    private static final ThreadLocal<Probe> PROBE = ThreadLocal.withInitial(Probe::new);
+
+    private TransitionLookup() {
+    }
+
+    /**
+     * Looks up the target of the transition from the given state on the given symbol.
+     *
+     * @param transitionFunction The transition function to search, may be null.
+     * @param state The source state.
+     * @param symbol The symbol of the transition.
+     * @return The target of the transition, or null if it is not defined.
+     */
+    static <V> V step(Map<Map<String, String>, V> transitionFunction, String state, String symbol) {
+        if (transitionFunction == null) {
+            return null;
+        }
+        return transitionFunction.get(PROBE.get().set(state, symbol));
+    }
+}
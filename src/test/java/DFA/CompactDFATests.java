@@ -0,0 +1,162 @@
+package DFA;
+
+import org.example.CanonicalForm;
+import org.example.CompactDFA;
+import org.example.DFA;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactDFATests {
+    private DFA dfa;
+
+    @BeforeEach
+    void setUp() {
+        Set<String> states = Set.of("q0", "q1", "q2");
+        Set<String> alphabet = Set.of("a", "b");
+        String initialState = "q0";
+        Set<String> acceptStates = Set.of("q2");
+
+        Map<Map<String, String>, String> transitionFunction = new HashMap<>();
+        transitionFunction.put(Map.of("q0", "a"), "q1");
+        transitionFunction.put(Map.of("q0", "b"), "q0");
+        transitionFunction.put(Map.of("q1", "a"), "q2");
+        transitionFunction.put(Map.of("q2", "b"), "q0");
+
+        dfa = new DFA(states, alphabet, initialState, acceptStates, transitionFunction);
+    }
+
+    @Test
+    public void testInterningAndStep() {
+        CompactDFA compact = CompactDFA.of(dfa);
+
+        assertEquals(3, compact.getStateCount());
+        assertEquals(2, compact.getSymbolCount());
+        assertEquals("a", compact.getSymbol(0));
+        assertEquals("b", compact.getSymbol(1));
+        assertEquals(compact.indexOfState("q0"), compact.getInitialState());
+        assertTrue(compact.isAccepting(compact.indexOfState("q2")));
+
+        int q0 = compact.indexOfState("q0");
+        int q1 = compact.indexOfState("q1");
+        assertEquals(q1, compact.step(q0, 0));
+        assertEquals(CompactDFA.NO_STATE, compact.step(q1, 1));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        assertEquals(dfa, CompactDFA.of(dfa).toDFA());
+    }
+
+    @Test
+    public void testReachableStates() {
+        dfa = new DFA(Set.of("q0", "q1", "q2", "q3"), dfa.getAlphabet(), "q0", dfa.getAcceptStates(),
+                dfa.getTransitionFunction());
+        boolean[] reachable = CompactDFA.of(dfa).reachableStates();
+
+        assertArrayEquals(new boolean[]{true, true, true, false}, reachable);
+    }
+
+    @Test
+    public void testMinimizeNumbersAcceptingClassesFirst() {
+        CompactDFA minimized = CompactDFA.of(dfa.completeDFA()).minimize();
+
+        assertEquals(4, minimized.getStateCount());
+        assertTrue(minimized.isAccepting(0));
+        assertEquals("q1", minimized.getStateName(minimized.getInitialState()));
+    }
+
+    @Test
+    public void testHopcroftAgreesWithMoore() {
+        Map<Map<String, String>, String> transitions = new HashMap<>(dfa.getTransitionFunction());
+        transitions.put(Map.of("q1", "b"), "q3");
+        transitions.put(Map.of("q3", "a"), "q3");
+        transitions.put(Map.of("q3", "b"), "q3");
+        transitions.put(Map.of("q4", "a"), "q2");
+        DFA partial = new DFA(Set.of("q0", "q1", "q2", "q3", "q4"), dfa.getAlphabet(), "q0",
+                Set.of("q2"), transitions);
+
+        for (DFA automaton : new DFA[]{dfa, dfa.completeDFA(), partial, partial.completeDFA()}) {
+            CompactDFA compact = CompactDFA.of(automaton);
+            assertEquals(compact.minimizeMoore().toDFA(), compact.minimize().toDFA());
+        }
+    }
+
+    @Test
+    public void testProductIsIntersection() {
+        DFA other = new DFA(Set.of("p0", "p1"), dfa.getAlphabet(), "p0", Set.of("p1"), Map.of(
+                Map.of("p0", "a"), "p1",
+                Map.of("p0", "b"), "p0",
+                Map.of("p1", "a"), "p1",
+                Map.of("p1", "b"), "p0"
+        ));
+
+        CompactDFA product = CompactDFA.product(CompactDFA.of(dfa), CompactDFA.of(other));
+
+        assertEquals("p0,q0", product.getStateName(product.getInitialState()));
+        int state = product.step(product.step(product.getInitialState(), 0), 0);
+        assertEquals("p1,q2", product.getStateName(state));
+        assertTrue(product.isAccepting(state));
+        assertEquals(CompactDFA.NO_STATE, product.step(product.step(product.getInitialState(), 0), 1));
+    }
+
+    @Test
+    public void testCanonicalFormIgnoresStateNames() {
+        DFA renamed = new DFA(Set.of("x", "y", "z", "unreachable"), Set.of("a", "b"), "z", Set.of("x"), Map.of(
+                Map.of("z", "a"), "y",
+                Map.of("z", "b"), "z",
+                Map.of("y", "a"), "x",
+                Map.of("x", "b"), "z",
+                Map.of("unreachable", "a"), "x"));
+        CanonicalForm form = CanonicalForm.of(CompactDFA.of(dfa));
+        CanonicalForm renamedForm = CanonicalForm.of(CompactDFA.of(renamed));
+
+        assertEquals(form, renamedForm);
+        assertEquals(form.fingerprint(), renamedForm.fingerprint());
+        assertEquals(3, form.getStateCount());
+        assertArrayEquals(new int[]{3, 2, 0, 0, 1, 1, 0, 2, -1, -1, 0}, form.toArray());
+    }
+
+    @Test
+    public void testCanonicalFormSeparatesLanguages() {
+        DFA other = new DFA(dfa.getStates(), dfa.getAlphabet(), "q0", Set.of("q1"), dfa.getTransitionFunction());
+        CanonicalForm form = CanonicalForm.of(CompactDFA.of(dfa));
+
+        assertNotEquals(form, CanonicalForm.of(CompactDFA.of(other)));
+        CompactDFA rebuilt = form.toCompactDFA();
+        CompactDFA original = CompactDFA.of(dfa);
+        assertTrue(rebuilt.isSubsetOf(original) && original.isSubsetOf(rebuilt));
+        assertEquals(form, CanonicalForm.ofMinimal(rebuilt));
+    }
+
+    @Test
+    public void testCanonicalFormOfPartialAndCompleteDFA() {
+        // {a} as a partial DFA and as a complete DFA with a rejecting sink
+        DFA partial = new DFA(Set.of("p0", "p1"), Set.of("a"), "p0", Set.of("p1"), Map.of(
+                Map.of("p0", "a"), "p1"));
+        DFA complete = new DFA(Set.of("q0", "q1", "sink"), Set.of("a"), "q0", Set.of("q1"), Map.of(
+                Map.of("q0", "a"), "q1",
+                Map.of("q1", "a"), "sink",
+                Map.of("sink", "a"), "sink"));
+        CanonicalForm form = CanonicalForm.of(CompactDFA.of(partial));
+
+        assertEquals(form, CanonicalForm.of(CompactDFA.of(complete)));
+        assertEquals(form, CanonicalForm.ofMinimal(CompactDFA.of(complete)));
+        assertEquals(2, form.getStateCount());
+
+        // The empty language, without accepting states or without transitions to them
+        DFA rejecting = new DFA(Set.of("q0"), Set.of("a"), "q0", Set.of(), Map.of(Map.of("q0", "a"), "q0"));
+        DFA unreachable = new DFA(Set.of("q0", "q1"), Set.of("a"), "q0", Set.of("q1"), Map.of());
+        CanonicalForm empty = CanonicalForm.of(CompactDFA.of(rejecting));
+
+        assertEquals(empty, CanonicalForm.of(CompactDFA.of(unreachable)));
+        assertEquals(0, empty.getStateCount());
+        assertEquals(empty, CanonicalForm.ofMinimal(empty.toCompactDFA()));
+        assertNotEquals(form, empty);
+    }
+}
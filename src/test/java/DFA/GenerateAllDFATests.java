@@ -1,5 +1,7 @@
 package DFA;
 
+import org.example.CanonicalCandidateSpliterator;
+import org.example.CompactDFA;
 import org.example.DFA;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -50,11 +52,11 @@ public class GenerateAllDFATests {
 
         assertEquals(1, generatedDFAs.size(), "With one state, there should be one valid DFA generated.");
 
-        assertEquals(Set.of("q0_1"), generatedDFAs.iterator().next().getStates());
+        assertEquals(Set.of("q0"), generatedDFAs.iterator().next().getStates());
         assertEquals(Set.of("a"), generatedDFAs.iterator().next().getAlphabet());
-        assertEquals("q0_1", generatedDFAs.iterator().next().getInitialState());
-        assertEquals(Set.of("q0_1"), generatedDFAs.iterator().next().getAcceptStates());
-        assertEquals(Map.of(Map.of("q0_1", "a"), "q0_1"), generatedDFAs.iterator().next().getTransitionFunction());
+        assertEquals("q0", generatedDFAs.iterator().next().getInitialState());
+        assertEquals(Set.of("q0"), generatedDFAs.iterator().next().getAcceptStates());
+        assertEquals(Map.of(Map.of("q0", "a"), "q0"), generatedDFAs.iterator().next().getTransitionFunction());
     }
 
     @Test
@@ -64,58 +66,32 @@ public class GenerateAllDFATests {
 
         Set<DFA> generatedDFAs = originalDfa.generateAllDFAs(numStates);
 
-        assertEquals(8, generatedDFAs.size(), "With two states, there should be two valid DFAs generated.");
-
-        List<DFA> dfas = generatedDFAs.stream().toList();
-
-        assertEquals(Set.of("q0_1", "q1_1"), dfas.get(0).getStates());
-        assertEquals(Set.of("a"), dfas.get(0).getAlphabet());
-        assertEquals("q0_1", dfas.get(0).getInitialState());
-        assertEquals(Set.of("q0_1"), dfas.get(0).getAcceptStates());
-        assertEquals(Map.of(Map.of("q0_1", "a"), "q0_1", Map.of("q1_1", "a"), "q0_1"), dfas.get(0).getTransitionFunction());
-
-        assertEquals(Set.of("q0_1", "q1_1"), dfas.get(1).getStates());
-        assertEquals(Set.of("a"), dfas.get(1).getAlphabet());
-        assertEquals("q0_1", dfas.get(1).getInitialState());
-        assertEquals(Set.of("q0_1", "q1_1"), dfas.get(1).getAcceptStates());
-        assertEquals(Map.of(Map.of("q0_1", "a"), "q0_1", Map.of("q1_1", "a"), "q1_1"), dfas.get(1).getTransitionFunction());
-
-        assertEquals(Set.of("q0_1", "q1_1"), dfas.get(2).getStates());
-        assertEquals(Set.of("a"), dfas.get(2).getAlphabet());
-        assertEquals("q0_1", dfas.get(2).getInitialState());
-        assertEquals(Set.of("q1_1", "q0_1"), dfas.get(2).getAcceptStates());
-        assertEquals(Map.of(Map.of("q0_1", "a"), "q1_1", Map.of("q1_1", "a"), "q1_1"), dfas.get(2).getTransitionFunction());
-
-        assertEquals(Set.of("q0_1", "q1_1"), dfas.get(3).getStates());
-        assertEquals(Set.of("a"), dfas.get(3).getAlphabet());
-        assertEquals("q0_1", dfas.get(3).getInitialState());
-        assertEquals(Set.of("q0_1", "q1_1"), dfas.get(3).getAcceptStates());
-        assertEquals(Map.of(Map.of("q0_1", "a"), "q0_1", Map.of("q1_1", "a"), "q0_1"), dfas.get(3).getTransitionFunction());
-
-        assertEquals(Set.of("q0_1", "q1_1"), dfas.get(4).getStates());
-        assertEquals(Set.of("a"), dfas.get(4).getAlphabet());
-        assertEquals("q0_1", dfas.get(4).getInitialState());
-        assertEquals(Set.of("q0_1", "q1_1"), dfas.get(4).getAcceptStates());
-        assertEquals(Map.of(Map.of("q0_1", "a"), "q1_1", Map.of("q1_1", "a"), "q0_1"), dfas.get(4).getTransitionFunction());
-
-        assertEquals(Set.of("q0_1", "q1_1"), dfas.get(5).getStates());
-        assertEquals(Set.of("a"), dfas.get(5).getAlphabet());
-        assertEquals("q0_1", dfas.get(5).getInitialState());
-        assertEquals(Set.of("q1_1"), dfas.get(5).getAcceptStates());
-        assertEquals(Map.of(Map.of("q0_1", "a"), "q1_1", Map.of("q1_1", "a"), "q1_1"), dfas.get(5).getTransitionFunction());
-
-        assertEquals(Set.of("q0_1", "q1_1"), dfas.get(6).getStates());
-        assertEquals(Set.of("a"), dfas.get(6).getAlphabet());
-        assertEquals("q0_1", dfas.get(6).getInitialState());
-        assertEquals(Set.of("q1_1"), dfas.get(6).getAcceptStates());
-        assertEquals(Map.of(Map.of("q0_1", "a"), "q1_1", Map.of("q1_1", "a"), "q0_1"), dfas.get(6).getTransitionFunction());
-
-        assertEquals(Set.of("q0_1", "q1_1"), dfas.get(7).getStates());
-        assertEquals(Set.of("a"), dfas.get(7).getAlphabet());
-        assertEquals("q0_1", dfas.get(7).getInitialState());
-        assertEquals(Set.of("q0_1"), dfas.get(7).getAcceptStates());
-        assertEquals(Map.of(Map.of("q0_1", "a"), "q0_1", Map.of("q1_1", "a"), "q1_1"), dfas.get(7).getTransitionFunction());
+        assertEquals(8, generatedDFAs.size(), "With two states, there should be eight valid DFAs generated.");
+
+        Set<DFA> expected = Set.of(
+                twoStateDFA("q0", "q0", Set.of("q0")),
+                twoStateDFA("q0", "q1", Set.of("q0")),
+                twoStateDFA("q0", "q0", Set.of("q0", "q1")),
+                twoStateDFA("q0", "q1", Set.of("q0", "q1")),
+                twoStateDFA("q1", "q0", Set.of("q0", "q1")),
+                twoStateDFA("q1", "q1", Set.of("q0", "q1")),
+                twoStateDFA("q1", "q0", Set.of("q1")),
+                twoStateDFA("q1", "q1", Set.of("q1"))
+        );
+        assertEquals(expected, generatedDFAs);
+    }
+
+    @Test
+    void testGenerateAllDFAsDoesNotRenameStates() {
+        originalDfa.generateAllDFAs(2);
+
+        assertEquals(Set.of("q0", "q1", "q2"), originalDfa.getStates());
+        assertEquals(Set.of("q1"), originalDfa.getAcceptStates());
+    }
 
+    private DFA twoStateDFA(String targetOfQ0, String targetOfQ1, Set<String> acceptStates) {
+        return new DFA(Set.of("q0", "q1"), Set.of("a"), "q0", acceptStates,
+                Map.of(Map.of("q0", "a"), targetOfQ0, Map.of("q1", "a"), targetOfQ1));
     }
 
     @Test
@@ -130,4 +106,109 @@ public class GenerateAllDFATests {
 
         assertEquals(12, generatedDFAs.size());
     }
+
+    @Test
+    void testRoofOfCyclicDFA() {
+        // a^n with n divisible by 6 is the intersection of the languages of the cycles of length 2 and 3
+        Map<Map<String, String>, String> transitionFunction = new HashMap<>();
+        Set<String> states = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            states.add("q" + i);
+            transitionFunction.put(Map.of("q" + i, "a"), "q" + (i + 1) % 6);
+        }
+        DFA cycle = new DFA(states, Set.of("a"), "q0", Set.of("q0"), transitionFunction);
+
+        CompactDFA roof = CompactDFA.of(cycle.getRoofDFA());
+        CompactDFA compact = CompactDFA.of(cycle);
+
+        assertTrue(compact.isSubsetOf(roof));
+        assertTrue(roof.isSubsetOf(compact));
+        assertFalse(CompactDFA.of(originalDfa.getRoofDFA()).isSubsetOf(CompactDFA.of(originalDfa)));
+    }
+
+    @Test
+    void testCanonicalCandidatesAreOnePerIsomorphismClass() {
+        CompactDFA compact = CompactDFA.of(new DFA(Set.of("q0"), Set.of("a", "b"), "q0", Set.of("q0"),
+                Map.of(Map.of("q0", "a"), "q0", Map.of("q0", "b"), "q0")));
+
+        List<String> canonical = CanonicalCandidateSpliterator.stream(compact, 3)
+                .map(GenerateAllDFATests::breadthFirstForm)
+                .toList();
+        Set<String> classes = new HashSet<>();
+        DFA dfa = compact.toDFA();
+        Set<String> states = Set.of("q0", "q1", "q2");
+        for (Map<Map<String, String>, String> transitionFunction : dfa.generateAllTransitionFunctions(states, dfa.getAlphabet())) {
+            for (Set<String> acceptStates : List.of(Set.of("q0"), Set.of("q1"), Set.of("q2"), Set.of("q0", "q1"),
+                    Set.of("q0", "q2"), Set.of("q1", "q2"), states)) {
+                String form = breadthFirstForm(CompactDFA.of(new DFA(states, dfa.getAlphabet(), "q0", acceptStates,
+                        transitionFunction)));
+                if (form != null) {
+                    classes.add(form);
+                }
+            }
+        }
+
+        assertFalse(canonical.contains(null));
+        assertEquals(canonical.size(), new HashSet<>(canonical).size());
+        assertEquals(classes, new HashSet<>(canonical));
+        // 3 states and 2 symbols give 216 initially-connected transition tables up to isomorphism
+        assertEquals(216 * 7, canonical.size());
+
+        // Splitting as far as possible keeps the candidates and their order
+        List<String> split = new ArrayList<>();
+        Deque<Spliterator<CompactDFA>> parts = new ArrayDeque<>();
+        parts.push(CanonicalCandidateSpliterator.of(compact, 3));
+        int partCount = 0;
+        while (!parts.isEmpty()) {
+            Spliterator<CompactDFA> part = parts.pop();
+            Spliterator<CompactDFA> prefix = part.trySplit();
+            if (prefix != null) {
+                parts.push(part);
+                parts.push(prefix);
+                continue;
+            }
+            partCount++;
+            part.forEachRemaining(candidate -> split.add(breadthFirstForm(candidate)));
+        }
+        assertTrue(partCount > 1);
+        assertEquals(canonical, split);
+        assertEquals(canonical, CanonicalCandidateSpliterator.stream(compact, 3, true)
+                .map(GenerateAllDFATests::breadthFirstForm)
+                .toList());
+    }
+
+    /**
+     * Renumbers the states of a DFA in breadth-first order and prints its table and accepting states.
+     *
+     * @param dfa The DFA to renumber.
+     * @return The renumbered DFA as a string, or null if some state is unreachable.
+     */
+    private static String breadthFirstForm(CompactDFA dfa) {
+        int[] number = new int[dfa.getStateCount()];
+        Arrays.fill(number, -1);
+        int[] order = new int[dfa.getStateCount()];
+        int count = 0;
+        order[count++] = dfa.getInitialState();
+        number[dfa.getInitialState()] = 0;
+        for (int i = 0; i < count; i++) {
+            for (int symbol = 0; symbol < dfa.getSymbolCount(); symbol++) {
+                int next = dfa.step(order[i], symbol);
+                if (number[next] == -1) {
+                    number[next] = count;
+                    order[count++] = next;
+                }
+            }
+        }
+        if (count < dfa.getStateCount()) {
+            return null;
+        }
+        StringBuilder form = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            for (int symbol = 0; symbol < dfa.getSymbolCount(); symbol++) {
+                form.append(number[dfa.step(order[i], symbol)]).append(' ');
+            }
+            form.append(dfa.isAccepting(order[i]) ? '+' : '-').append(' ');
+        }
+        return form.toString();
+    }
 }
@@ -1,9 +1,12 @@
 package DFA;
 
+import org.apache.commons.lang3.tuple.Triple;
 import org.example.DFA;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 public class IsCommutativeTests {
@@ -91,4 +94,44 @@ public class IsCommutativeTests {
 
         assertTrue(dfa.isCommutative(), "DFA with no transitions should be considered commutative.");
     }
+
+    @Test
+    public void testCommutativityCounterexample() {
+        Set<String> states = Set.of("q0", "q1", "q2");
+        Set<String> alphabet = Set.of("a", "b");
+        String initialState = "q0";
+        Set<String> acceptStates = Set.of("q2");
+
+        Map<Map<String, String>, String> transitionFunction = Map.of(
+                Map.of("q0", "a"), "q1",
+                Map.of("q0", "b"), "q0",
+                Map.of("q1", "a"), "q1",
+                Map.of("q1", "b"), "q2",
+                Map.of("q2", "a"), "q2",
+                Map.of("q2", "b"), "q2"
+        );
+
+        DFA dfa = new DFA(states, alphabet, initialState, acceptStates, transitionFunction);
+
+        assertFalse(dfa.isCommutative());
+        assertEquals(Triple.of("q0", "a", "b"), dfa.findCommutativityCounterexample());
+    }
+
+    @Test
+    public void testIsCommutative_LargeCyclicGroup() {
+        // Two generators of the cyclic group of order n commute, the check runs in parallel
+        int n = 20000;
+        Set<String> states = new HashSet<>();
+        Map<Map<String, String>, String> transitionFunction = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            states.add("q" + i);
+            transitionFunction.put(Map.of("q" + i, "a"), "q" + ((i + 1) % n));
+            transitionFunction.put(Map.of("q" + i, "b"), "q" + ((i + 7) % n));
+        }
+
+        DFA dfa = new DFA(states, Set.of("a", "b"), "q0", Set.of("q0"), transitionFunction);
+
+        assertTrue(dfa.isCommutative());
+        assertNull(dfa.findCommutativityCounterexample());
+    }
 }
@@ -8,7 +8,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class IsCompleteTests {
@@ -89,4 +91,46 @@ public class IsCompleteTests {
 
         assertFalse(dfa.isComplete(), "The single-state single-symbol DFA should be incomplete.");
     }
+
+    @Test
+    void testCompletenessFollowsChangedTransitionFunction() {
+        // The transition lookup index has to notice both a replaced and an extended transition function
+        dfa.setStates(Set.of("q0"));
+        dfa.setAlphabet(Set.of("a", "b"));
+        Map<Map<String, String>, String> transitionFunction = new HashMap<>();
+        transitionFunction.put(Map.of("q0", "a"), "q0");
+        dfa.setTransitionFunction(transitionFunction);
+
+        assertFalse(dfa.isComplete(), "The DFA should be incomplete.");
+        assertNull(dfa.step("q0", "b"), "The transition on b should be undefined.");
+
+        transitionFunction.put(Map.of("q0", "b"), "q0");
+        assertTrue(dfa.isComplete(), "The DFA should be complete after adding the transition.");
+
+        dfa.setTransitionFunction(Map.of(Map.of("q0", "a"), "q0"));
+        assertFalse(dfa.isComplete(), "The DFA should be incomplete after replacing the transition function.");
+        assertEquals("q0", dfa.step("q0", "a"), "The transition on a should lead back to q0.");
+    }
+
+    @Test
+    void testStepFollowsOverwrittenTransition() {
+        // Overwriting a key in place keeps the size of the map, the lookup index must still notice it
+        Map<Map<String, String>, String> transitionFunction = new HashMap<>();
+        transitionFunction.put(Map.of("q0", "a"), "q0");
+        transitionFunction.put(Map.of("q1", "a"), "q1");
+        DFA dfa = new DFA(Set.of("q0", "q1"), Set.of("a"), "q0", Set.of("q1"), transitionFunction);
+
+        assertEquals("q0", dfa.step("q0", "a"));
+        assertFalse(dfa.isAcceptStateReachable());
+
+        dfa.getTransitionFunction().put(Map.of("q0", "a"), "q1");
+        assertEquals("q1", dfa.step("q0", "a"), "The overwritten transition should lead to q1.");
+        assertTrue(dfa.isAcceptStateReachable(), "q1 should be reachable after overwriting the transition.");
+
+        // Replacing one key by another also keeps the size of the map
+        dfa.getTransitionFunction().remove(Map.of("q1", "a"));
+        dfa.getTransitionFunction().put(Map.of("q1", "b"), "q0");
+        assertNull(dfa.step("q1", "a"), "The removed transition should be undefined.");
+        assertEquals("q0", dfa.step("q1", "b"), "The added transition should lead to q0.");
+    }
 }
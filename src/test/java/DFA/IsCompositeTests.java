@@ -133,4 +133,38 @@ public class IsCompositeTests {
             assertEquals(Set.of("q1", "q2", "q3", "q4", "q6"), covered);
         }
     }
+
+    @Test
+    void testCoverVariantsAgree() {
+        String fileName = "automaton18.txt";
+        Automaton automaton = new Automaton();
+        FileReader f = new FileReader();
+        String msg = f.readText(fileName, automaton);
+        if(msg == null){
+            DFA dfa = automaton.toDFA();
+            Set<String> subset = Set.of("q1", "q2", "q3");
+            Set<Set<String>> processedOrbits = new HashSet<>();
+
+            assertEquals(dfa.coverTime(subset), dfa.coverMemory(subset, processedOrbits));
+            assertTrue(dfa.cover(subset));
+            assertFalse(processedOrbits.isEmpty());
+            for (Set<String> orbit : processedOrbits) {
+                assertEquals(subset.size(), orbit.size());
+            }
+        }
+    }
+
+    @Test
+    void testIsCompositeBlocksAgreesWithOriginal() {
+        for (String fileName : List.of("automaton15.txt", "automaton17.txt", "automaton18.txt", "automaton19.txt",
+                "automaton20.txt", "automaton26.txt", "automaton28.txt", "automaton2_1.txt", "automaton2_9.txt")) {
+            Automaton automaton = new Automaton();
+            FileReader f = new FileReader();
+            String msg = f.readText(fileName, automaton);
+            if(msg == null){
+                DFA dfa = automaton.toDFA();
+                assertEquals(dfa.isComposite(), dfa.isCompositeBlocks(), fileName);
+            }
+        }
+    }
 }
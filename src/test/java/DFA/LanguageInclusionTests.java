@@ -0,0 +1,94 @@
+package DFA;
+
+import org.example.Automaton;
+import org.example.CanonicalCandidateSpliterator;
+import org.example.CompactDFA;
+import org.example.DFA;
+import org.example.FileReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LanguageInclusionTests {
+    private DFA evenLength;
+    private DFA multipleOfFour;
+
+    @BeforeEach
+    void setUp() {
+        evenLength = new DFA(Set.of("q0", "q1"), Set.of("a"), "q0", Set.of("q0"), Map.of(
+                Map.of("q0", "a"), "q1",
+                Map.of("q1", "a"), "q0"
+        ));
+        multipleOfFour = new DFA(Set.of("q0", "q1", "q2", "q3"), Set.of("a"), "q0", Set.of("q0"), Map.of(
+                Map.of("q0", "a"), "q1",
+                Map.of("q1", "a"), "q2",
+                Map.of("q2", "a"), "q3",
+                Map.of("q3", "a"), "q0"
+        ));
+    }
+
+    @Test
+    public void testIsSubsetOf() {
+        assertTrue(multipleOfFour.isSubsetOf(evenLength));
+        assertFalse(evenLength.isSubsetOf(multipleOfFour));
+        assertTrue(evenLength.isSubsetOf(evenLength));
+    }
+
+    @Test
+    public void testIsSubsetOfPartialDFA() {
+        DFA onlyA = new DFA(Set.of("q0", "q1"), Set.of("a"), "q0", Set.of("q1"), Map.of(
+                Map.of("q0", "a"), "q1"
+        ));
+
+        assertFalse(evenLength.isSubsetOf(onlyA));
+        assertFalse(onlyA.isSubsetOf(evenLength));
+        assertTrue(new DFA(Set.of("q0"), Set.of("a"), "q0", Set.of(), Map.of()).isSubsetOf(onlyA));
+    }
+
+    @Test
+    public void testIsSubsetOfDoesNotModifyOperands() {
+        DFA copy = new DFA(evenLength.getStates(), evenLength.getAlphabet(), evenLength.getInitialState(),
+                evenLength.getAcceptStates(), evenLength.getTransitionFunction());
+
+        multipleOfFour.isSubsetOf(evenLength);
+
+        assertEquals(copy, evenLength);
+        assertEquals(Set.of("q0", "q1", "q2", "q3"), multipleOfFour.getStates());
+    }
+
+    @Test
+    public void testIsSubsetOfDifferentAlphabets() {
+        DFA other = new DFA(Set.of("q0"), Set.of("b"), "q0", Set.of("q0"), Map.of(Map.of("q0", "b"), "q0"));
+
+        assertThrows(IllegalArgumentException.class, () -> evenLength.isSubsetOf(other));
+    }
+
+    @Test
+    public void testIsSubsetOfEachAgreesWithIsSubsetOf() {
+        FileReader f = new FileReader();
+        Automaton automaton = new Automaton();
+        f.readText("automaton13.txt", automaton);
+        CompactDFA compact = CompactDFA.of(automaton.toDFA());
+
+        List<CompactDFA> candidates = CanonicalCandidateSpliterator.stream(compact, 3).toList();
+        CompactDFA[] block = new CompactDFA[64];
+        int included = 0;
+        for (int from = 0; from < candidates.size(); from += block.length) {
+            int count = Math.min(block.length, candidates.size() - from);
+            for (int lane = 0; lane < count; lane++) {
+                block[lane] = candidates.get(from + lane);
+            }
+            long lanes = compact.isSubsetOfEach(block, count);
+            for (int lane = 0; lane < count; lane++) {
+                assertEquals(compact.isSubsetOf(block[lane]), (lanes & (1L << lane)) != 0);
+            }
+            included += Long.bitCount(lanes);
+        }
+        assertTrue(included > 0);
+    }
+}
@@ -0,0 +1,106 @@
+package DFA;
+
+import org.example.Automaton;
+import org.example.CompactDFA;
+import org.example.DFA;
+import org.example.FileReader;
+import org.example.LetterClasses;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LetterClassesTests {
+    /**
+     * Adds copies of the given letter to the DFA, every copy inducing the same transitions as the letter.
+     */
+    private static DFA withCopiedLetter(DFA dfa, String letter, String... copies) {
+        Set<String> alphabet = new HashSet<>(dfa.getAlphabet());
+        Map<Map<String, String>, String> transitionFunction = new HashMap<>(dfa.getTransitionFunction());
+        for (String copy : copies) {
+            alphabet.add(copy);
+            for (String state : dfa.getStates()) {
+                String nextState = dfa.getTransitionFunction().get(Map.of(state, letter));
+                if (nextState != null) {
+                    transitionFunction.put(Map.of(state, copy), nextState);
+                }
+            }
+        }
+        return new DFA(new HashSet<>(dfa.getStates()), alphabet, dfa.getInitialState(),
+                new HashSet<>(dfa.getAcceptStates()), transitionFunction);
+    }
+
+    private static DFA read(String file) {
+        FileReader f = new FileReader();
+        Automaton automaton = new Automaton();
+        f.readText(file, automaton);
+        return automaton.toDFA();
+    }
+
+    @Test
+    public void testClassesOfCopiedLetters() {
+        DFA dfa = withCopiedLetter(read("automaton13.txt"), "0", "2", "3");
+        CompactDFA compact = CompactDFA.of(dfa);
+        LetterClasses classes = LetterClasses.of(compact);
+
+        assertEquals(2, classes.getClassCount());
+        assertFalse(classes.isTrivial());
+        assertArrayEquals(new String[]{"0", "2", "3"}, classes.getSymbols(classes.classOf(0)));
+        assertArrayEquals(new String[]{"1"}, classes.getSymbols(classes.classOf(1)));
+
+        CompactDFA compressed = classes.compress(compact);
+        assertEquals(2, compressed.getSymbolCount());
+        assertEquals(compact.getStateCount(), compressed.getStateCount());
+
+        CompactDFA expanded = classes.expand(compressed);
+        for (int state = 0; state < compact.getStateCount(); state++) {
+            for (int symbol = 0; symbol < compact.getSymbolCount(); symbol++) {
+                assertEquals(compact.step(state, symbol), expanded.step(state, symbol));
+            }
+        }
+    }
+
+    @Test
+    public void testTrivialClassesKeepTheDFA() {
+        CompactDFA compact = CompactDFA.of(read("automaton13.txt"));
+        LetterClasses classes = LetterClasses.of(compact);
+
+        assertTrue(classes.isTrivial());
+        assertSame(compact, classes.compress(compact));
+    }
+
+    @Test
+    public void testAnalysesIgnoreCopiedLetters() {
+        for (String file : new String[]{"automaton13.txt", "automaton19.txt", "automaton1_3.txt"}) {
+            DFA dfa = read(file);
+            String letter = dfa.getAlphabet().iterator().next();
+            DFA copied = withCopiedLetter(dfa, letter, "x", "y");
+
+            assertEquals(dfa.isPrimeDFA(), copied.isPrimeDFA(), file);
+            assertEquals(dfa.isPermutation(), copied.isPermutation(), file);
+            assertEquals(dfa.isCommutative(), copied.isCommutative(), file);
+            assertEquals(dfa.minimize().getStates().size(), copied.minimize().getStates().size(), file);
+            assertEquals(copied.getAlphabet(), copied.minimize().getAlphabet(), file);
+        }
+    }
+
+    @Test
+    public void testProductOverCopiedLetters() {
+        DFA first = withCopiedLetter(read("automaton13.txt"), "0", "2");
+        DFA second = withCopiedLetter(read("automaton13.txt"), "1", "2");
+        second.flipAcceptStates();
+        DFA product = DFA.product(first, second);
+
+        // The product over the whole alphabet, built without compression
+        CompactDFA expected = CompactDFA.product(CompactDFA.of(first), CompactDFA.of(second));
+
+        assertEquals(first.getAlphabet(), product.getAlphabet());
+        assertEquals(expected.getStateCount(), product.getStates().size());
+        assertTrue(product.isSubsetOf(expected.toDFA()));
+        assertTrue(expected.toDFA().isSubsetOf(product));
+    }
+}
@@ -0,0 +1,67 @@
+package DFA;
+
+import org.example.CompactDFA;
+import org.example.DFA;
+import org.example.MinimalDFALibrary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinimalDFALibraryTests {
+    @TempDir
+    Path directory;
+
+    private static CompactDFA binaryAlphabet() {
+        return CompactDFA.of(new DFA(Set.of("q0"), Set.of("a", "b"), "q0", Set.of(), Map.of(
+                Map.of("q0", "a"), "q0",
+                Map.of("q0", "b"), "q0")));
+    }
+
+    @Test
+    public void testTablesHoldOneMinimalDFAPerLanguage() {
+        MinimalDFALibrary library = new MinimalDFALibrary(directory);
+        CompactDFA alphabet = binaryAlphabet();
+
+        assertEquals(1, library.table(2, 1).size());
+        assertEquals(24, library.table(2, 2).size());
+        MinimalDFALibrary.Table table = library.table(2, 3);
+        assertEquals(1028, table.size());
+        table.stream(alphabet).forEach(dfa -> {
+            assertEquals(3, dfa.getStateCount());
+            assertEquals(3, dfa.minimize().getStateCount());
+        });
+        for (int i = 0; i < 50; i++) {
+            for (int j = i + 1; j < 50; j++) {
+                CompactDFA first = table.get(i, alphabet);
+                CompactDFA second = table.get(j, alphabet);
+                assertFalse(first.isSubsetOf(second) && second.isSubsetOf(first));
+            }
+        }
+    }
+
+    @Test
+    public void testLibraryFileIsReusedAcrossInstances() throws Exception {
+        new MinimalDFALibrary(directory).table(2, 3);
+        Path file = directory.resolve("minimal-2-3.dfa");
+        assertTrue(Files.exists(file));
+        FileTime written = Files.getLastModifiedTime(file);
+
+        MinimalDFALibrary.Table table = new MinimalDFALibrary(directory).table(2, 3);
+        assertEquals(1028, table.size());
+        assertEquals(written, Files.getLastModifiedTime(file));
+    }
+
+    @Test
+    public void testCorruptedLibraryIsRejected() throws Exception {
+        Files.write(directory.resolve("minimal-2-2.dfa"), new byte[]{1, 2, 3});
+
+        assertThrows(java.io.UncheckedIOException.class, () -> new MinimalDFALibrary(directory).table(2, 2));
+    }
+}
@@ -0,0 +1,123 @@
+package DFA;
+
+import org.example.Automaton;
+import org.example.DFA;
+import org.example.FileReader;
+import org.example.PermutationGroup;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PermutationGroupTests {
+    private static int[] cycle(int n) {
+        return IntStream.range(0, n).map(i -> (i + 1) % n).toArray();
+    }
+
+    private static int[] transposition(int n) {
+        int[] permutation = IntStream.range(0, n).toArray();
+        permutation[0] = 1;
+        permutation[1] = 0;
+        return permutation;
+    }
+
+    private static int[] reflection(int n) {
+        return IntStream.range(0, n).map(i -> (n - i) % n).toArray();
+    }
+
+    /**
+     * Enumerates the group generated by the permutations by closing the identity under them.
+     */
+    private static Set<List<Integer>> closure(int n, int[]... generators) {
+        Set<List<Integer>> elements = new HashSet<>();
+        Deque<int[]> queue = new ArrayDeque<>();
+        queue.add(IntStream.range(0, n).toArray());
+        elements.add(Arrays.stream(queue.peek()).boxed().toList());
+        while (!queue.isEmpty()) {
+            int[] element = queue.poll();
+            for (int[] generator : generators) {
+                int[] product = Arrays.stream(element).map(point -> generator[point]).toArray();
+                if (elements.add(Arrays.stream(product).boxed().toList())) {
+                    queue.add(product);
+                }
+            }
+        }
+        return elements;
+    }
+
+    @Test
+    public void testOrdersOfClassicalGroups() {
+        assertEquals(BigInteger.valueOf(5040), new PermutationGroup(7, cycle(7), transposition(7)).order());
+        assertEquals(BigInteger.valueOf(12), new PermutationGroup(12, cycle(12)).order());
+        assertEquals(BigInteger.valueOf(16), new PermutationGroup(8, cycle(8), reflection(8)).order());
+        assertEquals(new BigInteger("2432902008176640000"), new PermutationGroup(20, cycle(20), transposition(20)).order());
+        assertEquals(BigInteger.ONE, new PermutationGroup(4).order());
+    }
+
+    @Test
+    public void testMembershipMatchesClosure() {
+        int[] a = {1, 2, 0, 4, 5, 3};
+        int[] b = {3, 4, 5, 0, 1, 2};
+        int[] c = {0, 2, 1, 3, 5, 4};
+        PermutationGroup group = new PermutationGroup(6, a, b, c);
+        Set<List<Integer>> elements = closure(6, a, b, c);
+
+        assertEquals(BigInteger.valueOf(elements.size()), group.order());
+        for (List<Integer> element : elements) {
+            assertTrue(group.contains(element.stream().mapToInt(Integer::intValue).toArray()));
+        }
+        assertFalse(group.contains(new int[]{1, 0, 2, 3, 4, 5}));
+        for (int[] generator : group.getStrongGenerators()) {
+            assertTrue(group.contains(generator));
+        }
+    }
+
+    @Test
+    public void testOrbitsAndStabilizers() {
+        int[] rotation = {1, 2, 0, 3, 4};
+        int[] swap = {0, 1, 2, 4, 3};
+        PermutationGroup group = new PermutationGroup(5, rotation, swap);
+
+        assertFalse(group.isTransitive());
+        assertArrayEquals(new int[]{0, 1, 2}, group.orbit(1));
+        assertArrayEquals(new int[]{0, 0, 0, 3, 3}, group.orbits());
+        assertEquals(BigInteger.valueOf(6), group.order());
+        PermutationGroup stabilizer = group.stabilizer(3);
+        assertEquals(BigInteger.valueOf(3), stabilizer.order());
+        assertArrayEquals(new int[]{3}, stabilizer.orbit(3));
+
+        PermutationGroup symmetric = new PermutationGroup(6, cycle(6), transposition(6));
+        assertEquals(BigInteger.valueOf(120), symmetric.stabilizer(4).order());
+    }
+
+    @Test
+    public void testPrimitivityAndAbelianness() {
+        assertTrue(new PermutationGroup(7, cycle(7)).isPrimitive());
+        assertFalse(new PermutationGroup(8, cycle(8)).isPrimitive());
+        assertTrue(new PermutationGroup(8, cycle(8), transposition(8)).isPrimitive());
+        assertFalse(new PermutationGroup(6, cycle(6), reflection(6)).isPrimitive());
+        assertTrue(new PermutationGroup(8, cycle(8)).isAbelian());
+        assertFalse(new PermutationGroup(5, cycle(5), reflection(5)).isAbelian());
+    }
+
+    @Test
+    public void testTransitionGroupOfPermutationDFA() {
+        FileReader f = new FileReader();
+        Automaton automaton = new Automaton();
+        f.readText("automaton2_1.txt", automaton);
+        DFA dfa = automaton.toDFA();
+        PermutationGroup group = dfa.getTransitionGroup();
+
+        assertEquals(dfa.getStates().size(), group.getDegree());
+        assertEquals(BigInteger.valueOf(closure(group.getDegree(), group.getGenerators()).size()), group.order());
+        assertEquals(dfa.isCommutative(), group.isAbelian());
+    }
+}
@@ -0,0 +1,96 @@
+package DFA;
+
+import org.example.Automaton;
+import org.example.CompactDFA;
+import org.example.DFA;
+import org.example.FileReader;
+import org.example.PowerTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PowerTableTests {
+    private static int stepTimes(CompactDFA dfa, int state, int symbol, long exponent) {
+        for (long i = 0; i < exponent && state != CompactDFA.NO_STATE; i++) {
+            state = dfa.step(state, symbol);
+        }
+        return state;
+    }
+
+    private static void assertPowersMatchSteps(CompactDFA dfa) {
+        PowerTable table = PowerTable.of(dfa);
+        for (int state = 0; state < dfa.getStateCount(); state++) {
+            for (int symbol = 0; symbol < dfa.getSymbolCount(); symbol++) {
+                for (int exponent = 0; exponent <= 3 * dfa.getStateCount(); exponent++) {
+                    assertEquals(stepTimes(dfa, state, symbol, exponent), table.power(state, symbol, exponent));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPowersOfPermutationLetters() {
+        FileReader f = new FileReader();
+        Automaton automaton = new Automaton();
+        f.readText("automaton84.txt", automaton);
+        CompactDFA dfa = CompactDFA.of(automaton.toDFA());
+
+        assertPowersMatchSteps(dfa);
+        PowerTable table = PowerTable.of(dfa);
+        for (int state = 0; state < dfa.getStateCount(); state++) {
+            for (int symbol = 0; symbol < dfa.getSymbolCount(); symbol++) {
+                int length = table.cycleLength(state, symbol);
+                assertEquals(0, table.depth(state, symbol));
+                assertEquals(state, table.power(state, symbol, length));
+                assertEquals(state, table.power(state, symbol, 1_000_000_000_000L * length));
+            }
+        }
+    }
+
+    @Test
+    public void testPowersOfRandomTransformations() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(12);
+            Set<String> states = new HashSet<>();
+            Map<Map<String, String>, String> transitionFunction = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                states.add("q" + i);
+                for (String letter : new String[]{"a", "b"}) {
+                    // Some transitions are missing, the rest map the states arbitrarily
+                    if (random.nextInt(5) > 0) {
+                        transitionFunction.put(Map.of("q" + i, letter), "q" + random.nextInt(n));
+                    }
+                }
+            }
+            DFA dfa = new DFA(states, Set.of("a", "b"), "q0", Set.of("q0"), transitionFunction);
+
+            assertPowersMatchSteps(CompactDFA.of(dfa));
+        }
+    }
+
+    @Test
+    public void testApplyExponentVector() {
+        FileReader f = new FileReader();
+        Automaton automaton = new Automaton();
+        f.readText("automaton81.txt", automaton);
+        CompactDFA dfa = CompactDFA.of(automaton.toDFA());
+        PowerTable table = PowerTable.of(dfa);
+
+        int[] exponents = {4, 0, 7};
+        for (int state = 0; state < dfa.getStateCount(); state++) {
+            int expected = state;
+            for (int symbol = 0; symbol < exponents.length; symbol++) {
+                expected = stepTimes(dfa, expected, symbol, exponents[symbol]);
+            }
+            assertEquals(expected, table.apply(state, exponents));
+            assertEquals(expected, table.apply(state, new long[]{4, 0, 7}));
+        }
+    }
+}
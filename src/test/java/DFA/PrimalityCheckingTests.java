@@ -1,9 +1,22 @@
 package DFA;
 
 import org.example.Automaton;
+import org.example.CompactDFA;
 import org.example.DFA;
+import org.example.FactorSearch;
 import org.example.FileReader;
+import org.example.MinimalDFALibrary;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class PrimalityCheckingTests {
@@ -23,6 +36,8 @@ public class PrimalityCheckingTests {
         assertFalse(dfa.isCompositeCommutative());
         assertFalse(dfa.isCompositeCommutativeSavedWord());
         assertFalse(dfa.isCompositeCommutativeBigAlphabet());
+        assertFalse(dfa.isCompositeCommutativeBFS());
+        assertFalse(dfa.isCompositeCommutativeGroup());
     }
 
     @Test
@@ -40,6 +55,8 @@ public class PrimalityCheckingTests {
         assertFalse(dfa.isCompositeCommutative());
         assertFalse(dfa.isCompositeCommutativeSavedWord());
         assertFalse(dfa.isCompositeCommutativeBigAlphabet());
+        assertFalse(dfa.isCompositeCommutativeBFS());
+        assertFalse(dfa.isCompositeCommutativeGroup());
     }
 
     @Test
@@ -57,6 +74,8 @@ public class PrimalityCheckingTests {
         assertFalse(dfa.isCompositeCommutative());
         assertFalse(dfa.isCompositeCommutativeSavedWord());
         assertFalse(dfa.isCompositeCommutativeBigAlphabet());
+        assertFalse(dfa.isCompositeCommutativeBFS());
+        assertFalse(dfa.isCompositeCommutativeGroup());
     }
 
     @Test
@@ -74,6 +93,8 @@ public class PrimalityCheckingTests {
         assertFalse(dfa.isCompositeCommutative());
         assertFalse(dfa.isCompositeCommutativeSavedWord());
         assertFalse(dfa.isCompositeCommutativeBigAlphabet());
+        assertFalse(dfa.isCompositeCommutativeBFS());
+        assertFalse(dfa.isCompositeCommutativeGroup());
     }
 
     @Test
@@ -91,6 +112,8 @@ public class PrimalityCheckingTests {
         assertFalse(dfa.isCompositeCommutative());
         assertFalse(dfa.isCompositeCommutativeSavedWord());
         assertFalse(dfa.isCompositeCommutativeBigAlphabet());
+        assertFalse(dfa.isCompositeCommutativeBFS());
+        assertFalse(dfa.isCompositeCommutativeGroup());
     }
 
     @Test
@@ -140,4 +163,182 @@ public class PrimalityCheckingTests {
         assertTrue(dfa.isCompositeCommutativeSavedWord());
         assertTrue(dfa.isCompositeCommutativeSavedWord());
     }
+
+    @Test
+    public void testCompositeCommutativeAutomaton19() {
+        FileReader f = new FileReader();
+        Automaton automaton = new Automaton();
+        f.readText("automaton19.txt", automaton);
+        DFA dfa = automaton.toDFA();
+
+        assertTrue(dfa.isCompositeCommutative());
+        assertTrue(dfa.isCompositeCommutativeSavedWord());
+        assertTrue(dfa.isCompositeCommutativeBigAlphabet());
+        assertTrue(dfa.isCompositeCommutativeBFS());
+        assertTrue(dfa.isCompositeCommutativeGroup());
+        assertFalse(dfa.isPrimeDFA());
+    }
+
+    @Test
+    public void testMimicFindsWordFromRejectingState() {
+        FileReader f = new FileReader();
+        Automaton automaton = new Automaton();
+        f.readText("automaton19.txt", automaton);
+        DFA dfa = automaton.toDFA();
+
+        int found = 0;
+        for (String p : dfa.getStates()) {
+            for (String q : dfa.getStates()) {
+                if (p.equals(q)) {
+                    continue;
+                }
+                List<Integer> powers = new ArrayList<>();
+                for (int i = 0; i < dfa.getAlphabet().size(); i++) {
+                    powers.add(0);
+                }
+                String mimicked = dfa.mimic(new ArrayList<>(powers), 0, 0, p, q, dfa.getInitialState());
+                var saved = dfa.mimicSavedWord(new ArrayList<>(powers), 0, 0, p, q, dfa.getInitialState());
+                if (saved == null) {
+                    assertNull(mimicked);
+                    continue;
+                }
+                found++;
+                assertEquals(saved.getLeft(), mimicked);
+                String fromP = p;
+                String fromInitial = dfa.getInitialState();
+                for (String letter : saved.getRight()) {
+                    fromP = dfa.step(fromP, letter);
+                    fromInitial = dfa.step(fromInitial, letter);
+                }
+                assertEquals(q, fromP);
+                assertEquals(saved.getLeft(), fromInitial);
+            }
+        }
+        assertTrue(found > 0);
+    }
+
+    @Test
+    public void testBigAlphabetAgreesWithBFSOnLargeCycle() {
+        int n = 120;
+        Set<String> states = new HashSet<>();
+        Map<Map<String, String>, String> transitionFunction = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            states.add("q" + i);
+            transitionFunction.put(Map.of("q" + i, "a"), "q" + ((i + 1) % n));
+            transitionFunction.put(Map.of("q" + i, "b"), "q" + ((i + 2) % n));
+        }
+        DFA dfa = new DFA(states, Set.of("a", "b"), "q0", Set.of("q0"), transitionFunction);
+
+        assertEquals(dfa.isCompositeCommutativeBFS(), dfa.isCompositeCommutativeBigAlphabet());
+    }
+
+    @Test
+    public void testCommutativeGroupAgreesWithBFS() {
+        for (String file : new String[]{"automaton1_5.txt", "automaton1_14.txt", "automaton2_5.txt", "automaton2_16.txt",
+                "automaton29.txt", "automaton37.txt", "automaton65.txt", "automaton81.txt", "automaton83.txt",
+                "automaton84.txt"}) {
+            FileReader f = new FileReader();
+            Automaton automaton = new Automaton();
+            f.readText(file, automaton);
+            DFA dfa = automaton.toDFA();
+
+            assertEquals(dfa.isCompositeCommutativeBFS(), dfa.isCompositeCommutativeGroup(), file);
+        }
+    }
+
+    @Test
+    public void testCommutativeBigAlphabetOnLargeAlphabets() {
+        for (String file : new String[]{"automaton2_16.txt", "automaton68.txt", "automaton80.txt", "automaton81.txt",
+                "automaton84.txt"}) {
+            FileReader f = new FileReader();
+            Automaton automaton = new Automaton();
+            f.readText(file, automaton);
+            DFA dfa = automaton.toDFA();
+
+            assertEquals(dfa.isCompositeCommutativeBFS(), dfa.isCompositeCommutativeBigAlphabet(), file);
+        }
+    }
+
+    @Test
+    public void testCompositeDetectedBeforeLargeCandidates() {
+        // Counts of a and b both divisible by 3, the intersection of two 3-state DFAs
+        Set<String> states = new HashSet<>();
+        Map<Map<String, String>, String> transitionFunction = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                states.add("q" + i + j);
+                transitionFunction.put(Map.of("q" + i + j, "a"), "q" + (i + 1) % 3 + j);
+                transitionFunction.put(Map.of("q" + i + j, "b"), "q" + i + (j + 1) % 3);
+            }
+        }
+        DFA dfa = new DFA(states, Set.of("a", "b"), "q00", Set.of("q00"), transitionFunction);
+
+        assertFalse(dfa.isPrimeDFA());
+        assertFalse(dfa.isPrimeDFA(FactorSearch.BACKTRACKING));
+    }
+
+    @Test
+    public void testSearchEnginesAgree(@TempDir Path directory) {
+        MinimalDFALibrary library = new MinimalDFALibrary(directory);
+        for (String file : new String[]{"automaton10.txt", "automaton13.txt", "automaton14.txt", "automaton17.txt",
+                "automaton18.txt", "automaton19.txt", "automaton1_3.txt"}) {
+            FileReader f = new FileReader();
+            Automaton automaton = new Automaton();
+            f.readText(file, automaton);
+            DFA dfa = automaton.toDFA().minimize().completeDFA();
+
+            assertEquals(dfa.isPrimeDFA(), dfa.isPrimeDFA(FactorSearch.BACKTRACKING), file);
+            assertEquals(dfa.isPrimeDFA(), dfa.isPrimeDFA(FactorSearch.PARALLEL), file);
+            assertEquals(dfa.isPrimeDFA(), dfa.isPrimeDFA(library), file);
+            CompactDFA roof = CompactDFA.of(dfa.getRoofDFA());
+            CompactDFA backtrackingRoof = CompactDFA.of(dfa.getRoofDFA(FactorSearch.BACKTRACKING));
+            assertTrue(roof.isSubsetOf(backtrackingRoof) && backtrackingRoof.isSubsetOf(roof), file);
+            CompactDFA parallelRoof = CompactDFA.of(dfa.getRoofDFA(FactorSearch.PARALLEL));
+            assertTrue(roof.isSubsetOf(parallelRoof) && parallelRoof.isSubsetOf(roof), file);
+            CompactDFA libraryRoof = CompactDFA.of(dfa.getRoofDFA(library));
+            assertTrue(roof.isSubsetOf(libraryRoof) && libraryRoof.isSubsetOf(roof), file);
+        }
+    }
+
+    @Test
+    public void testBatchAgreesWithSingleChecks(@TempDir Path directory) {
+        MinimalDFALibrary library = new MinimalDFALibrary(directory);
+        List<DFA> dfas = new ArrayList<>();
+        for (String file : new String[]{"automaton8.txt", "automaton9.txt", "automaton10.txt", "automaton13.txt",
+                "automaton14.txt", "automaton16.txt", "automaton17.txt", "automaton18.txt", "automaton19.txt",
+                "automaton1_3.txt", "automaton6.txt", "automaton15.txt"}) {
+            FileReader f = new FileReader();
+            Automaton automaton = new Automaton();
+            f.readText(file, automaton);
+            dfas.add(automaton.toDFA().minimize().completeDFA());
+        }
+
+        List<Boolean> expected = new ArrayList<>();
+        for (DFA dfa : dfas) {
+            expected.add(dfa.isPrimeDFA());
+        }
+        assertEquals(expected, DFA.arePrimeDFAs(dfas));
+        assertEquals(expected, DFA.arePrimeDFAs(dfas, library));
+        assertThrows(IllegalArgumentException.class, () -> DFA.arePrimeDFAs(dfas, FactorSearch.BACKTRACKING));
+    }
+
+    @Test
+    public void testAlphaSetsOfEnginesAgree(@TempDir Path directory) {
+        MinimalDFALibrary library = new MinimalDFALibrary(directory);
+        FileReader f = new FileReader();
+        Automaton automaton = new Automaton();
+        f.readText("automaton13.txt", automaton);
+        DFA dfa = automaton.toDFA().minimize().completeDFA();
+
+        Set<DFA> alpha = dfa.getAlphaDFA();
+        assertFalse(alpha.isEmpty());
+        assertEquals(alpha, dfa.getAlphaDFA(FactorSearch.PARALLEL));
+        assertEquals(alpha, dfa.getAlphaDFA(library));
+        assertTrue(alpha.containsAll(dfa.getAlphaDFA(FactorSearch.BACKTRACKING)));
+        CompactDFA compact = CompactDFA.of(dfa);
+        for (DFA factor : alpha) {
+            assertTrue(compact.isSubsetOf(CompactDFA.of(factor)));
+            assertTrue(factor.getStates().size() < dfa.getStates().size());
+        }
+    }
 }
@@ -1,9 +1,12 @@
 package DFA;
 
 import org.example.DFA;
+import org.example.ProductOperation;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -148,4 +151,82 @@ public class ProductOfAutomataTests {
                 Map.of("p0,q0", "a"), "sink,sink_1"
         ), productDFA.getTransitionFunction());
     }
+
+    @Test
+    public void testProduct_Operations() {
+        // Words of even length and words ending with a, the second DFA is partial
+        DFA even = new DFA(Set.of("q0", "q1"), Set.of("a", "b"), "q0", Set.of("q0"), Map.of(
+                Map.of("q0", "a"), "q1",
+                Map.of("q0", "b"), "q1",
+                Map.of("q1", "a"), "q0",
+                Map.of("q1", "b"), "q0"
+        ));
+        DFA endsWithA = new DFA(Set.of("q0", "q1"), Set.of("a", "b"), "q0", Set.of("q1"), Map.of(
+                Map.of("q0", "a"), "q1",
+                Map.of("q0", "b"), "q0",
+                Map.of("q1", "a"), "q1",
+                Map.of("q1", "b"), "q0"
+        ));
+
+        for (ProductOperation operation : ProductOperation.values()) {
+            DFA productDFA = DFA.product(even, endsWithA, operation);
+            for (String word : new String[]{"", "a", "b", "ab", "ba", "aa", "bba", "abab"}) {
+                boolean expected = operation.accepts(word.length() % 2 == 0, word.endsWith("a"));
+                assertEquals(expected, accepts(productDFA, word), operation + " on '" + word + "'");
+            }
+        }
+        assertEquals(Set.of("q0", "q1"), endsWithA.getStates());
+        assertEquals(Set.of("q1"), endsWithA.getAcceptStates());
+    }
+
+    @Test
+    public void testProduct_UnionWithPartialDFA() {
+        DFA onlyA = new DFA(Set.of("q0", "q1"), Set.of("a", "b"), "q0", Set.of("q1"), Map.of(
+                Map.of("q0", "a"), "q1"
+        ));
+        DFA onlyB = new DFA(Set.of("p0", "p1"), Set.of("a", "b"), "p0", Set.of("p1"), Map.of(
+                Map.of("p0", "b"), "p1"
+        ));
+
+        DFA union = DFA.product(onlyA, onlyB, ProductOperation.UNION);
+
+        assertEquals(Set.of("p0,q0", "q1,\u2205", "p1,\u2205"), union.getStates());
+        assertEquals(Set.of("q1,\u2205", "p1,\u2205"), union.getAcceptStates());
+        assertTrue(accepts(union, "a"));
+        assertTrue(accepts(union, "b"));
+        assertFalse(accepts(union, "ab"));
+        assertTrue(DFA.product(onlyA, onlyB).getAcceptStates().isEmpty());
+    }
+
+    @Test
+    public void testProduct_SetOfDFAs() {
+        // Cycles of length 2, 3, 4 and 6 accepting the words of length divisible by the length of the cycle
+        Set<DFA> dfas = new HashSet<>();
+        for (int length : new int[]{2, 3, 4, 6}) {
+            Map<Map<String, String>, String> transitionFunction = new HashMap<>();
+            Set<String> states = new HashSet<>();
+            for (int i = 0; i < length; i++) {
+                states.add("q" + i);
+                transitionFunction.put(Map.of("q" + i, "a"), "q" + (i + 1) % length);
+            }
+            dfas.add(new DFA(states, Set.of("a"), "q0", Set.of("q0"), transitionFunction));
+        }
+
+        DFA productDFA = DFA.product(dfas);
+
+        assertEquals(4, dfas.size());
+        assertEquals(12, productDFA.getStates().size());
+        for (int length = 0; length <= 24; length++) {
+            assertEquals(length % 12 == 0, accepts(productDFA, "a".repeat(length)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> DFA.product(new HashSet<>()));
+    }
+
+    private boolean accepts(DFA dfa, String word) {
+        String state = dfa.getInitialState();
+        for (char symbol : word.toCharArray()) {
+            state = state != null ? dfa.step(state, String.valueOf(symbol)) : null;
+        }
+        return state != null && dfa.getAcceptStates().contains(state);
+    }
 }
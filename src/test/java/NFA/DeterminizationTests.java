@@ -314,4 +314,31 @@ public class DeterminizationTests {
         assertEquals(convertedAutomaton.getTransitionFunction(), newTransitionFunction);
     }
 
+    @Test
+    public void testExponentialBlowUp() {
+        // The k-th symbol from the end is an a, the minimal DFA has 2^k states
+        int k = 12;
+        Set<String> states = new HashSet<>();
+        Map<Map<String, String>, Set<String>> transitionFunction = new HashMap<>();
+        for (int i = 0; i <= k; i++) {
+            states.add("q" + i);
+        }
+        transitionFunction.put(Map.of("q0", "a"), Set.of("q0", "q1"));
+        transitionFunction.put(Map.of("q0", "b"), Set.of("q0"));
+        for (int i = 1; i < k; i++) {
+            transitionFunction.put(Map.of("q" + i, "a"), Set.of("q" + (i + 1)));
+            transitionFunction.put(Map.of("q" + i, "b"), Set.of("q" + (i + 1)));
+        }
+
+        Automaton automaton = new Automaton(states, new HashSet<>(Set.of("a", "b")), "q0", Set.of("q" + k),
+                transitionFunction);
+
+        DFA convertedAutomaton = automaton.convertToDeterministic();
+
+        assertEquals(1 << k, convertedAutomaton.getStates().size());
+        assertEquals("q0", convertedAutomaton.getInitialState());
+        assertEquals(1 << (k - 1), convertedAutomaton.getAcceptStates().size());
+        assertEquals("q0,q1", convertedAutomaton.getTransitionFunction().get(Map.of("q0", "a")));
+        assertEquals(1 << k, convertedAutomaton.minimize().getStates().size());
+    }
 }
@@ -158,4 +158,18 @@ public class NondeterministicAutomatonTests {
         assertEquals(convertedAutomaton.getAcceptStates(), acceptStates);
         assertEquals(convertedAutomaton.getTransitionFunction(), newTransitionFunction);
     }
+
+    @Test
+    public void testStepFollowsOverwrittenTransition() {
+        Map<Map<String, String>, Set<String>> transitionFunction = new HashMap<>();
+        transitionFunction.put(Map.of("q0", "a"), Set.of("q0"));
+        Automaton automaton = new Automaton(Set.of("q0", "q1"), Set.of("a"), "q0", Set.of("q1"), transitionFunction);
+
+        assertEquals(Set.of("q0"), automaton.step("q0", "a"));
+        assertTrue(automaton.isDeterministic());
+
+        automaton.getTransitionFunction().put(Map.of("q0", "a"), Set.of("q0", "q1"));
+        assertEquals(Set.of("q0", "q1"), automaton.step("q0", "a"), "The overwritten transition should be used.");
+        assertFalse(automaton.isDeterministic());
+    }
 }